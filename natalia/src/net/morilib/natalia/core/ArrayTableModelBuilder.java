@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A builder which keeps the cells in arrays instead of maps.
+ * <p>The cells are appended to growable arrays, and a dense index
+ * of the positions in row major order is made when the table is
+ * looked at, so get costs O(1).  The tables which this makes behave
+ * as the tables of SimpleTableModelBuilder do, including cells
+ * appended after the table is made.  The index takes a slot for each
+ * position between the first and the last row and column, so this
+ * is meant for tables which have few holes.
+ * <p>The index is immutable and published through a volatile field,
+ * so the tables may be looked at by many threads once the cells are
+ * appended.
+ */
+public class ArrayTableModelBuilder implements LazyTableModelBuilder {
+
+	/**
+	 * makes the builders of this class.
+	 */
+	public static final TableModelBuilderFactory FACTORY =
+			new TableModelBuilderFactory() {
+
+		@Override
+		public TableModelBuilder newInstance() {
+			return new ArrayTableModelBuilder();
+		}
+
+	};
+
+	//
+	private int[] rows = new int[16], cols = new int[16];
+	private int[] rspans = new int[16], cspans = new int[16];
+	private CharSequence[] texts = new CharSequence[16];
+	private int size;
+
+	// the index, which is made again after cells are appended
+	private volatile Index index;
+
+	// +e+1 for the top left of the cell e, -e-1 for the rest, 0 for none
+	private static final class Index {
+
+		//
+		private final int[] slots;
+		private final int size, top, left, width, height;
+
+		//
+		private Index(int[] slots, int size, int top, int left,
+				int width, int height) {
+			this.slots = slots;
+			this.size = size;
+			this.top = top;
+			this.left = left;
+			this.width = width;
+			this.height = height;
+		}
+
+	}
+
+	//
+	private class Cell implements LazyTableCell {
+
+		//
+		private int entry;
+		private boolean merged;
+
+		//
+		private Cell(int e, boolean m) {
+			entry = e;
+			merged = m;
+		}
+
+		@Override
+		public int getRow() {
+			return rows[entry];
+		}
+
+		@Override
+		public int getColumn() {
+			return cols[entry];
+		}
+
+		@Override
+		public int getRowSpan() {
+			return rspans[entry];
+		}
+
+		@Override
+		public int getColumnSpan() {
+			return cspans[entry];
+		}
+
+		@Override
+		public String getCell() {
+			return texts[entry].toString();
+		}
+
+		@Override
+		public CharSequence getCellText() {
+			return texts[entry];
+		}
+
+		@Override
+		public TableCell getMergedCell() {
+			return merged ? new Cell(entry, false) : null;
+		}
+
+	}
+
+	//
+	private class Iter implements Iterator<TableCell> {
+
+		//
+		private int[] slots;
+		private int p = -1;
+		private boolean span;
+
+		//
+		private Iter(Index x, boolean s) {
+			slots = x.slots;
+			span = s;
+			nt();
+		}
+
+		//
+		private void nt() {
+			for(p++; p < slots.length; p++) {
+				if(slots[p] > 0 || (span && slots[p] < 0)) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return p < slots.length;
+		}
+
+		@Override
+		public TableCell next() {
+			TableCell c;
+
+			if(p >= slots.length) {
+				throw new NoSuchElementException();
+			}
+			c = cell(slots[p]);
+			nt();
+			return c;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	//
+	private static int[] copy(int[] a, int l) {
+		int[] b = new int[l];
+
+		System.arraycopy(a, 0, b, 0, a.length);
+		return b;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableModelBuilder#appendCell(int, int, int, int, java.lang.String)
+	 */
+	@Override
+	public void appendCell(int row, int col, int rspan, int cspan,
+			String text) {
+		appendCell(row, col, rspan, cspan, (CharSequence)text);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.LazyTableModelBuilder#appendCell(int, int, int, int, java.lang.CharSequence)
+	 */
+	@Override
+	public void appendCell(int row, int col, int rspan, int cspan,
+			CharSequence text) {
+		CharSequence[] t;
+		int l;
+
+		if(size >= rows.length) {
+			l = rows.length * 2;
+			rows = copy(rows, l);
+			cols = copy(cols, l);
+			rspans = copy(rspans, l);
+			cspans = copy(cspans, l);
+			t = new CharSequence[l];
+			System.arraycopy(texts, 0, t, 0, size);
+			texts = t;
+		}
+		rows[size] = row;
+		cols[size] = col;
+		rspans[size] = rspan;
+		cspans[size] = cspan;
+		texts[size] = text;
+		size++;
+	}
+
+	//
+	private Index index() {
+		int top, left, bottom, right, width, height, r, c, n = size;
+		Index x = index;
+		int[] a;
+
+		if(x != null && x.size == n) {
+			return x;
+		}
+
+		// a cell without columns still makes its rows
+		top = left = Integer.MAX_VALUE;
+		bottom = right = Integer.MIN_VALUE;
+		for(int e = 0; e < n; e++) {
+			if(rspans[e] > 0) {
+				top = Math.min(top, rows[e]);
+				bottom = Math.max(bottom, rows[e] + rspans[e] - 1);
+			}
+
+			if(rspans[e] > 0 && cspans[e] > 0) {
+				left = Math.min(left, cols[e]);
+				right = Math.max(right, cols[e] + cspans[e] - 1);
+			}
+		}
+		height = top > bottom ? 0 : bottom - top + 1;
+		width = left > right ? 0 : right - left + 1;
+
+		a = new int[height * width];
+		for(int e = 0; e < n; e++) {
+			for(int i = 0; i < rspans[e]; i++) {
+				for(int j = 0; j < cspans[e]; j++) {
+					r = rows[e] + i - top;
+					c = cols[e] + j - left;
+					a[r * width + c] = i == 0 && j == 0 ? e + 1 : -e - 1;
+				}
+			}
+		}
+		index = x = new Index(a, n, top, left, width, height);
+		return x;
+	}
+
+	//
+	private TableCell cell(int x) {
+		if(x > 0) {
+			return new Cell(x - 1, false);
+		} else if(x < 0) {
+			return new Cell(-x - 1, true);
+		} else {
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableModelBuilder#toTableModel()
+	 */
+	@Override
+	public TableModel toTableModel() {
+		return new TableModel() {
+
+			@Override
+			public int rowSize() {
+				Index x = index();
+
+				return x.height > 0 ? x.top + x.height - 1 : 0;
+			}
+
+			@Override
+			public int columnSize() {
+				Index x = index();
+
+				for(int c = x.width - 1; c >= 0; c--) {
+					if(x.slots[c] != 0) {
+						return x.left + c;
+					}
+				}
+				return 0;
+			}
+
+			@Override
+			public TableCell get(int row, int col) {
+				Index x = index();
+
+				if(row < x.top || row >= x.top + x.height ||
+						col < x.left || col >= x.left + x.width) {
+					return null;
+				} else {
+					return cell(x.slots[
+							(row - x.top) * x.width + col - x.left]);
+				}
+			}
+
+			@Override
+			public Iterator<TableCell> iterator() {
+				return new Iter(index(), false);
+			}
+
+			@Override
+			public Iterator<TableCell> allIterator() {
+				return new Iter(index(), true);
+			}
+
+			@Override
+			public String toString() {
+				StringBuilder b = new StringBuilder();
+				Index x = index();
+				TableCell c;
+
+				for(int p = 0; p < x.slots.length; p++) {
+					if((c = cell(x.slots[p])) != null) {
+						b.append("(" + (x.top + p / x.width) + "," +
+								(x.left + p % x.width) + "):");
+						b.append(c.getCell());
+						b.append('\n');
+					}
+				}
+				return b.toString();
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * A table whose rows under the header are kept by columns, each of
+ * which has a type.
+ * <p>A column of numbers keeps its values in an array of primitives
+ * with a bitmap of nulls, so the texts of the cells are made when
+ * they are asked for.  The typed getters give 0 for a null, which
+ * isNull tells apart.
+ */
+public interface ColumnarTableModel extends TableModel {
+
+	/**
+	 * The types of columns.
+	 * A DECIMAL column keeps the digits of its values as longs which
+	 * have the same scale, and a DOUBLE column keeps its values as
+	 * doubles.
+	 */
+	public enum Type {
+		INT, LONG, DECIMAL, DOUBLE, STRING;
+	}
+
+	/**
+	 * gets the row of the header.
+	 * 
+	 * @return
+	 */
+	public int getHeaderRow();
+
+	/**
+	 * 
+	 * @param col
+	 * @return
+	 */
+	public Type getType(int col);
+
+	/**
+	 * gets the number of the digits after the decimal point.
+	 * 
+	 * @param col
+	 * @return the scale, or 0 if the column is not DECIMAL
+	 */
+	public int getScale(int col);
+
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @return
+	 */
+	public boolean isNull(int row, int col);
+
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @return
+	 * @throws IllegalStateException if the column is not INT
+	 */
+	public int getInt(int row, int col);
+
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @return
+	 * @throws IllegalStateException if the column is not INT or LONG
+	 */
+	public long getLong(int row, int col);
+
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @return
+	 * @throws IllegalStateException if the column is STRING
+	 */
+	public double getDouble(int row, int col);
+
+}
@@ -0,0 +1,607 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.morilib.automata.DFA;
+import net.morilib.automata.DFAState;
+import net.morilib.automata.NFAState;
+import net.morilib.automata.dfa.ConvertedRangeDFA;
+import net.morilib.automata.nfa.RegexParseException;
+import net.morilib.natalia.core.ColumnarTableModel.Type;
+import net.morilib.regex.dfa.RegexParser;
+
+/**
+ * Builds a ColumnarTableModel whose types are guessed from the cells.
+ * <p>A column begins as INT and becomes LONG or DECIMAL as its values
+ * need.  Integers mixed with decimals, decimals of different scales
+ * and numbers of too many digits make the column DOUBLE, as the
+ * columns of float8 or of numeric without a scale print.  A value
+ * which is not a number in its plain form or a value which is not
+ * aligned to the right turns the column into STRING.
+ * <p>The texts of the cells do not change.  INT, LONG and DECIMAL
+ * take numbers only in the forms which they are printed in again,
+ * and DOUBLE keeps the text of a value only if the value prints
+ * otherwise.  The rows under the header are appended in order, and
+ * a missing cell is null.
+ */
+public class ColumnarTableModelBuilder implements TableModelBuilder {
+
+	//
+	private static final DFA<Object, NFAState, Integer> INTEGER =
+			compile("0|-?[1-9][0-9]*");
+	private static final DFA<Object, NFAState, Integer> DECIMAL =
+			compile("-?(0|[1-9][0-9]*)\\.[0-9]+");
+
+	//
+	private static DFA<Object, NFAState, Integer> compile(String re) {
+		try {
+			return ConvertedRangeDFA.convertDFA(RegexParser.parse(re));
+		} catch(RegexParseException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	//
+	private static boolean matches(DFA<Object, NFAState, Integer> d,
+			String s) {
+		DFAState<Object, NFAState, Integer> q = d.getInitialState();
+
+		for(int i = 0; i < s.length(); i++) {
+			if((q = q.goChar(s.charAt(i))).isDead()) {
+				return false;
+			}
+		}
+		return q.isAccepted();
+	}
+
+	//
+	private static class Column {
+
+		//
+		private Type type = Type.INT;
+		private int[] ints = new int[8];
+		private long[] longs;
+		private double[] doubles;
+		private String[] strings, texts;
+		private long[] nulls = new long[1];
+		private int scale, size, count;
+
+		//
+		private int capacity() {
+			switch(type) {
+			case INT:   return ints.length;
+			case DOUBLE:  return doubles.length;
+			case STRING:  return strings.length;
+			default:    return longs.length;
+			}
+		}
+
+		//
+		private void grow(int n) {
+			int l = capacity();
+			long[] a;
+
+			if(n > l) {
+				l = Math.max(l * 2, n);
+				switch(type) {
+				case INT:
+					ints = copy(ints, l);
+					break;
+				case DOUBLE:
+					doubles = copy(doubles, l);
+					texts = texts == null ? null : copy(texts, l);
+					break;
+				case STRING:
+					strings = copy(strings, l);
+					break;
+				default:
+					longs = copy(longs, l);
+					break;
+				}
+			}
+
+			if(n > nulls.length * 64) {
+				a = new long[(n + 63) / 64 * 2];
+				System.arraycopy(nulls, 0, a, 0, nulls.length);
+				nulls = a;
+			}
+		}
+
+		//
+		private static int[] copy(int[] a, int l) {
+			int[] b = new int[l];
+
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+
+		//
+		private static String[] copy(String[] a, int l) {
+			String[] b = new String[l];
+
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+
+		//
+		private static long[] copy(long[] a, int l) {
+			long[] b = new long[l];
+
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+
+		//
+		private static double[] copy(double[] a, int l) {
+			double[] b = new double[l];
+
+			System.arraycopy(a, 0, b, 0, a.length);
+			return b;
+		}
+
+		// the shortest plain form, as 1 for 1.0 and 0.25 for 0.250
+		private static String plain(double d) {
+			if(d == 0) {
+				return "0";
+			}
+			return BigDecimal.valueOf(d).stripTrailingZeros()
+					.toPlainString();
+		}
+
+		//
+		private boolean isNull(int i) {
+			return i >= size || (nulls[i >>> 6] & (1L << i)) != 0;
+		}
+
+		//
+		private String format(int i) {
+			switch(type) {
+			case INT:   return Integer.toString(ints[i]);
+			case LONG:  return Long.toString(longs[i]);
+			case DECIMAL:
+				return BigDecimal.valueOf(longs[i], scale).toPlainString();
+			case DOUBLE:
+				return texts != null && texts[i] != null ?
+						texts[i] : plain(doubles[i]);
+			default:    return strings[i];
+			}
+		}
+
+		//
+		private void toLong() {
+			longs = new long[ints.length];
+			for(int i = 0; i < size; i++) {
+				longs[i] = ints[i];
+			}
+			ints = null;
+		}
+
+		//
+		private double doubleValue(int i) {
+			switch(type) {
+			case INT:   return ints[i];
+			case LONG:  return longs[i];
+			case DECIMAL:
+				return BigDecimal.valueOf(longs[i], scale).doubleValue();
+			default:    return doubles[i];
+			}
+		}
+
+		// keeps the text only if the value does not print so
+		private void put(int i, double d, String s) {
+			doubles[i] = d;
+			if(!plain(d).equals(s)) {
+				if(texts == null)  texts = new String[doubles.length];
+				texts[i] = s;
+			} else if(texts != null) {
+				texts[i] = null;
+			}
+		}
+
+		//
+		private void toDouble() {
+			double[] a = new double[capacity()];
+			String[] t = new String[a.length];
+
+			for(int i = 0; i < size; i++) {
+				if(!isNull(i)) {
+					a[i] = doubleValue(i);
+					t[i] = format(i);
+				}
+			}
+
+			doubles = new double[a.length];
+			texts = null;
+			ints = null;
+			longs = null;
+			type = Type.DOUBLE;
+			scale = 0;
+			for(int i = 0; i < size; i++) {
+				if(!isNull(i))  put(i, a[i], t[i]);
+			}
+		}
+
+		//
+		private boolean storeDouble(int i, String s) {
+			if(type != Type.DOUBLE) {
+				toDouble();
+			}
+			put(i, Double.parseDouble(s), s);
+			count++;
+			return true;
+		}
+
+		//
+		private void toString(int l) {
+			String[] s = new String[l];
+
+			for(int i = 0; i < size; i++) {
+				if(!isNull(i))  s[i] = format(i);
+			}
+			strings = s;
+			ints = null;
+			longs = null;
+			doubles = null;
+			texts = null;
+			type = Type.STRING;
+			scale = 0;
+		}
+
+		// stores a number, or gives false if the column can not
+		private boolean store(int i, String s) {
+			int d, c;
+			long v;
+
+			try {
+				if(!matches(INTEGER, s) && !matches(DECIMAL, s)) {
+					return false;
+				} else if(type == Type.DOUBLE) {
+					return storeDouble(i, s);
+				} else if((d = s.indexOf('.')) < 0) {
+					if(type == Type.DECIMAL) {
+						return storeDouble(i, s);
+					}
+
+					v = Long.parseLong(s);
+					if(type == Type.INT && (v < Integer.MIN_VALUE ||
+							v > Integer.MAX_VALUE)) {
+						toLong();
+						type = Type.LONG;
+					}
+
+					if(type == Type.INT) {
+						ints[i] = (int)v;
+					} else {
+						longs[i] = v;
+					}
+				} else {
+					c = s.length() - d - 1;
+					v = Long.parseLong(s.substring(0, d) +
+							s.substring(d + 1));
+					if(type == Type.DECIMAL ? c != scale : count > 0) {
+						return storeDouble(i, s);
+					} else if(v == 0 && s.charAt(0) == '-') {
+						// -0.0 would be printed without the sign
+						return storeDouble(i, s);
+					} else if(type != Type.DECIMAL) {
+						longs = new long[capacity()];
+						ints = null;
+						type = Type.DECIMAL;
+						scale = c;
+					}
+					longs[i] = v;
+				}
+			} catch(NumberFormatException e) {
+				// too many digits
+				return storeDouble(i, s);
+			}
+			count++;
+			return true;
+		}
+
+		//
+		private void add(int i, String s, boolean right,
+				String nullText) {
+			grow(i + 1);
+			for(int k = size; k < i; k++) {
+				nulls[k >>> 6] |= 1L << k;
+			}
+
+			if(s.equals(nullText)) {
+				nulls[i >>> 6] |= 1L << i;
+			} else if(type == Type.STRING) {
+				strings[i] = s;
+			} else if(!right || !store(i, s)) {
+				toString(capacity());
+				strings[i] = s;
+			}
+			size = i + 1;
+		}
+
+	}
+
+	//
+	private class Cell implements TableCell {
+
+		//
+		private int row, col;
+
+		//
+		private Cell(int row, int col) {
+			this.row = row;
+			this.col = col;
+		}
+
+		@Override
+		public int getRow() {
+			return row;
+		}
+
+		@Override
+		public int getColumn() {
+			return col;
+		}
+
+		@Override
+		public int getRowSpan() {
+			return 1;
+		}
+
+		@Override
+		public int getColumnSpan() {
+			return 1;
+		}
+
+		@Override
+		public String getCell() {
+			Column c;
+
+			if(row == headerRow) {
+				return header.get(col - 1);
+			} else if((c = columns.get(col - 1)).isNull(
+					row - headerRow - 1)) {
+				return nullText;
+			} else {
+				return c.format(row - headerRow - 1);
+			}
+		}
+
+		@Override
+		public TableCell getMergedCell() {
+			return null;
+		}
+
+	}
+
+	//
+	private int headerRow, rows;
+	private String nullText;
+	private List<String> header = new ArrayList<String>();
+	private List<Column> columns = new ArrayList<Column>();
+
+	/**
+	 * 
+	 * @param headerRow the row of the header
+	 * @param nullText the text of nulls
+	 */
+	public ColumnarTableModelBuilder(int headerRow, String nullText) {
+		this.headerRow = headerRow;
+		this.nullText = nullText;
+	}
+
+	/**
+	 * appends a cell whose alignment is known.
+	 * 
+	 * @param row
+	 * @param col
+	 * @param text
+	 * @param rightAligned false if the text is aligned to the left,
+	 *        which numbers are not
+	 */
+	public void appendCell(int row, int col, String text,
+			boolean rightAligned) {
+		Column c;
+
+		if(row < headerRow || col < 1) {
+			throw new IllegalArgumentException();
+		} else if(row == headerRow) {
+			while(header.size() < col)  header.add("");
+			header.set(col - 1, text);
+		} else {
+			while(columns.size() < col)  columns.add(new Column());
+			while(header.size() < col)  header.add("");
+			c = columns.get(col - 1);
+			if(row - headerRow - 1 < c.size) {
+				throw new IllegalArgumentException(
+						"rows must be appended in order");
+			}
+			c.add(row - headerRow - 1, text, rightAligned,
+					nullText);
+			rows = Math.max(rows, row - headerRow);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableModelBuilder#appendCell(int, int, int, int, java.lang.String)
+	 */
+	@Override
+	public void appendCell(int row, int col, int rowspan, int colspan,
+			String text) {
+		if(rowspan != 1 || colspan != 1) {
+			throw new IllegalArgumentException("spans are not kept");
+		}
+		appendCell(row, col, text, true);
+	}
+
+	//
+	private Column column(int row, int col) {
+		if(row <= headerRow || row > headerRow + rows ||
+				col < 1 || col > header.size()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		while(columns.size() < col)  columns.add(new Column());
+		return columns.get(col - 1);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableModelBuilder#toTableModel()
+	 */
+	@Override
+	public ColumnarTableModel toTableModel() {
+		while(columns.size() < header.size())  columns.add(new Column());
+		return new ColumnarTableModel() {
+
+			@Override
+			public int rowSize() {
+				return headerRow + rows;
+			}
+
+			@Override
+			public int columnSize() {
+				return header.size();
+			}
+
+			@Override
+			public TableCell get(int row, int col) {
+				if(row < headerRow || row > headerRow + rows ||
+						col < 1 || col > header.size()) {
+					return null;
+				} else {
+					return new Cell(row, col);
+				}
+			}
+
+			@Override
+			public Iterator<TableCell> iterator() {
+				return new Iterator<TableCell>() {
+
+					private int row = headerRow, col = 1;
+
+					@Override
+					public boolean hasNext() {
+						return row <= headerRow + rows &&
+								col <= header.size();
+					}
+
+					@Override
+					public TableCell next() {
+						TableCell c;
+
+						if(!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						c = new Cell(row, col);
+						if(++col > header.size()) {
+							row++;
+							col = 1;
+						}
+						return c;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+			@Override
+			public Iterator<TableCell> allIterator() {
+				return iterator();
+			}
+
+			@Override
+			public int getHeaderRow() {
+				return headerRow;
+			}
+
+			@Override
+			public Type getType(int col) {
+				return columns.get(col - 1).type;
+			}
+
+			@Override
+			public int getScale(int col) {
+				return columns.get(col - 1).scale;
+			}
+
+			@Override
+			public boolean isNull(int row, int col) {
+				return column(row, col).isNull(row - headerRow - 1);
+			}
+
+			@Override
+			public int getInt(int row, int col) {
+				Column c = column(row, col);
+				int i = row - headerRow - 1;
+
+				if(c.type != Type.INT) {
+					throw new IllegalStateException();
+				}
+				return c.isNull(i) ? 0 : c.ints[i];
+			}
+
+			@Override
+			public long getLong(int row, int col) {
+				Column c = column(row, col);
+				int i = row - headerRow - 1;
+
+				if(c.type == Type.INT) {
+					return c.isNull(i) ? 0 : c.ints[i];
+				} else if(c.type != Type.LONG) {
+					throw new IllegalStateException();
+				}
+				return c.isNull(i) ? 0 : c.longs[i];
+			}
+
+			@Override
+			public double getDouble(int row, int col) {
+				Column c = column(row, col);
+				int i = row - headerRow - 1;
+
+				if(c.type == Type.STRING) {
+					throw new IllegalStateException();
+				} else if(c.isNull(i)) {
+					return 0;
+				} else {
+					return c.doubleValue(i);
+				}
+			}
+
+			@Override
+			public String toString() {
+				StringBuilder b = new StringBuilder();
+
+				for(TableCell c : this) {
+					b.append("(" + c.getRow() + "," + c.getColumn() + "):");
+					b.append(c.getCell());
+					b.append('\n');
+				}
+				return b.toString();
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * A builder which keeps the texts of the cells as they are given,
+ * so that a text is built only when it is read.
+ * <p>The cells of the tables which this makes are LazyTableCells.
+ */
+public interface LazyTableModelBuilder extends TableModelBuilder {
+
+	/**
+	 * 
+	 * @param row
+	 * @param col
+	 * @param rowspan
+	 * @param colspan
+	 * @param text the text, which is read when the cell is read
+	 */
+	public void appendCell(int row, int col, int rowspan, int colspan,
+			CharSequence text);
+
+}
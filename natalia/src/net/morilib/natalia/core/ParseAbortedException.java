@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * Thrown when a parse is stopped by its options before it ends.
+ */
+public class ParseAbortedException extends ParserException {
+
+	/**
+	 * Why a parse is stopped.
+	 */
+	public static enum Reason {
+		STEP_BUDGET, DEADLINE, CANCELLED
+	}
+
+	//
+	private Reason reason;
+	private long steps;
+	private Object state;
+	private int row, column;
+
+	/**
+	 * 
+	 * @param reason
+	 * @param steps the steps which are done
+	 * @param state the state of the parser
+	 * @param row the row of the head
+	 * @param column the column of the head
+	 */
+	public ParseAbortedException(Reason reason, long steps, Object state,
+			int row, int column) {
+		super(reason + " after " + steps + " steps at " + state +
+				" (" + row + "," + column + ")");
+		this.reason = reason;
+		this.steps = steps;
+		this.state = state;
+		this.row = row;
+		this.column = column;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public Object getState() {
+		return state;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * The result of one input of a batch: a table or the error which
+ * the input caused.
+ */
+public class ParseResult {
+
+	//
+	private int index;
+	private TableModel model;
+	private Exception error;
+
+	/**
+	 * 
+	 * @param index the index of the input
+	 * @param model the table, or null if failed
+	 * @param error the error, or null if succeeded
+	 */
+	public ParseResult(int index, TableModel model, Exception error) {
+		this.index = index;
+		this.model = model;
+		this.error = error;
+	}
+
+	/**
+	 * gets the index of the input, counted from 0.
+	 * 
+	 * @return
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * 
+	 * @return the table, or null if the input is failed
+	 */
+	public TableModel getTableModel() {
+		return model;
+	}
+
+	/**
+	 * 
+	 * @return the error, or null if the input is parsed
+	 */
+	public Exception getError() {
+		return error;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return index + ":" + (error == null ? "ok" : error.toString());
+	}
+
+}
@@ -17,4 +17,17 @@ package net.morilib.natalia.core;
 
 public class ParserException extends RuntimeException {
 
+	/**
+	 * 
+	 */
+	public ParserException() {}
+
+	/**
+	 * 
+	 * @param message
+	 */
+	public ParserException(String message) {
+		super(message);
+	}
+
 }
@@ -23,21 +23,34 @@ import java.util.TreeMap;
 /**
  *
  */
-public class SimpleTableModelBuilder implements TableModelBuilder {
+public class SimpleTableModelBuilder implements LazyTableModelBuilder {
+
+	/**
+	 * makes the builders of this class.
+	 */
+	public static final TableModelBuilderFactory FACTORY =
+			new TableModelBuilderFactory() {
+
+		@Override
+		public TableModelBuilder newInstance() {
+			return new SimpleTableModelBuilder();
+		}
+
+	};
 
 	//
 	private SortedMap<Integer, SortedMap<Integer, TableCell>> table =
 			new TreeMap<Integer, SortedMap<Integer, TableCell>>();
 
 	//
-	private static class Cell implements TableCell {
+	private static class Cell implements LazyTableCell {
 
 		//
 		private int row, col, rspan, cspan;
-		private String text;
+		private CharSequence text;
 		private TableCell cell;
 
-		private Cell(int r, int c, int rs, int cs, String t,
+		private Cell(int r, int c, int rs, int cs, CharSequence t,
 				TableCell l) {
 			row = r;
 			col = c;
@@ -69,6 +82,11 @@ public class SimpleTableModelBuilder implements TableModelBuilder {
 
 		@Override
 		public String getCell() {
+			return text.toString();
+		}
+
+		@Override
+		public CharSequence getCellText() {
 			return text;
 		}
 
@@ -145,8 +163,17 @@ public class SimpleTableModelBuilder implements TableModelBuilder {
 	 * @see net.morilib.natalia.TableModelBuilder#appendCell(int, int, int, int, java.lang.String)
 	 */
 	@Override
+	public void appendCell(int row, int col, int rspan, int cspan,
+			String text) {
+		appendCell(row, col, rspan, cspan, (CharSequence)text);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.LazyTableModelBuilder#appendCell(int, int, int, int, java.lang.CharSequence)
+	 */
+	@Override
 	public void appendCell(final int row, final int col,
-			final int rspan, final int cspan, final String text) {
+			final int rspan, final int cspan, final CharSequence text) {
 		SortedMap<Integer, TableCell> m;
 		TableCell c, d = null;
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * The box of the frame of a table and the size of the table
+ * without the texts of its cells.
+ */
+public class TableLocation extends TableRegion {
+
+	//
+	private int rows, columns, spans;
+
+	/**
+	 * 
+	 * @param top
+	 * @param left
+	 * @param bottom
+	 * @param right
+	 * @param rows
+	 * @param columns
+	 * @param spans
+	 */
+	public TableLocation(int top, int left, int bottom, int right,
+			int rows, int columns, int spans) {
+		super(top, left, bottom, right, null);
+		this.rows = rows;
+		this.columns = columns;
+		this.spans = spans;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int rowSize() {
+		return rows;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int columnSize() {
+		return columns;
+	}
+
+	/**
+	 * gets the number of the cells which span more than one row
+	 * or column.
+	 * 
+	 * @return
+	 */
+	public int getSpanCount() {
+		return spans;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableRegion#translate(int)
+	 */
+	@Override
+	public TableLocation translate(int rows) {
+		return new TableLocation(getTop() + rows, getLeft(),
+				getBottom() + rows, getRight(), this.rows, columns,
+				spans);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.TableRegion#toString()
+	 */
+	public String toString() {
+		return super.toString() + " " + rows + "x" + columns +
+				(spans > 0 ? " spans " + spans : "");
+	}
+
+}
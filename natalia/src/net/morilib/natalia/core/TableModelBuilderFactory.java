@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * Makes the builders of the tables which a parse makes.
+ *
+ * @see SimpleTableModelBuilder#FACTORY
+ * @see ArrayTableModelBuilder#FACTORY
+ */
+public interface TableModelBuilderFactory {
+
+	/**
+	 * 
+	 * @return a new builder
+	 */
+	public TableModelBuilder newInstance();
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * Utilities of TableModelBuilders.
+ */
+public final class TableModelBuilders {
+
+	private TableModelBuilders() {}
+
+	/**
+	 * appends a cell to the given builder.
+	 * The text is kept as it is if the builder is a
+	 * LazyTableModelBuilder, or else it is built into a string.
+	 * 
+	 * @param b
+	 * @param row
+	 * @param col
+	 * @param rowspan
+	 * @param colspan
+	 * @param text
+	 */
+	public static void appendCell(TableModelBuilder b, int row, int col,
+			int rowspan, int colspan, CharSequence text) {
+		if(b instanceof LazyTableModelBuilder) {
+			((LazyTableModelBuilder)b).appendCell(row, col,
+					rowspan, colspan, text);
+		} else {
+			b.appendCell(row, col, rowspan, colspan, text.toString());
+		}
+	}
+
+}
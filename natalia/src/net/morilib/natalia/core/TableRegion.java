@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+/**
+ * A table and the box of its frame in the text.
+ * <p>Rows count lines from 0 and columns count display columns
+ * from 0, a full width character taking two columns.
+ * The box includes the frame.
+ */
+public class TableRegion {
+
+	//
+	private int top, left, bottom, right;
+	private TableModel model;
+
+	/**
+	 * 
+	 * @param top
+	 * @param left
+	 * @param bottom
+	 * @param right
+	 * @param model
+	 */
+	public TableRegion(int top, int left, int bottom, int right,
+			TableModel model) {
+		this.top = top;
+		this.left = left;
+		this.bottom = bottom;
+		this.right = right;
+		this.model = model;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getTop() {
+		return top;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getLeft() {
+		return left;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getBottom() {
+		return bottom;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getRight() {
+		return right;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public TableModel getTableModel() {
+		return model;
+	}
+
+	/**
+	 * 
+	 * @param row
+	 * @param column
+	 * @return
+	 */
+	public boolean contains(int row, int column) {
+		return row >= top && row <= bottom &&
+				column >= left && column <= right;
+	}
+
+	/**
+	 * gets the region moved down by the given rows.
+	 * 
+	 * @param rows
+	 * @return
+	 */
+	public TableRegion translate(int rows) {
+		return new TableRegion(top + rows, left, bottom + rows, right,
+				model);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "(" + top + "," + left + ")-(" + bottom + "," + right +
+				")";
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.RejectedExecutionException;
+
+import net.morilib.natalia.core.ParseResult;
+import net.morilib.natalia.lba2d.ParseOptions;
+
+/**
+ * Parses the inputs by an executor and delivers the results.
+ * <p>The inputs are taken only while fewer than maxInFlight results
+ * are running or waiting to be delivered, so the consumer bounds
+ * the work in flight by the speed at which it reads the results.
+ */
+class BatchParseIterator implements Iterator<ParseResult> {
+
+	//
+	private TableParser parser;
+	private ParseOptions options;
+	private Iterator<? extends Reader> inputs;
+	private CompletionService<ParseResult> service;
+	private Map<Integer, ParseResult> done;
+	private Queue<ParseResult> rejected = new LinkedList<ParseResult>();
+	private int maxInFlight, submitted, delivered;
+
+	//
+	BatchParseIterator(TableParser p, Iterator<? extends Reader> in,
+			Executor ex, int max, boolean ordered, ParseOptions o) {
+		if(max < 1) {
+			throw new IllegalArgumentException();
+		}
+		parser = p;
+		options = o;
+		inputs = in;
+		service = new ExecutorCompletionService<ParseResult>(ex);
+		done = ordered ? new HashMap<Integer, ParseResult>() : null;
+		maxInFlight = max;
+	}
+
+	//
+	private void fill() {
+		while(submitted - delivered < maxInFlight && inputs.hasNext()) {
+			final Reader r = inputs.next();
+			final int i = submitted;
+
+			try {
+				service.submit(new Callable<ParseResult>() {
+
+					@Override
+					public ParseResult call() {
+						return parse(i, r);
+					}
+
+				});
+			} catch(RejectedExecutionException e) {
+				// the input is delivered as failed and not waited for
+				close(r);
+				rejected.add(new ParseResult(i, null, e));
+			}
+			submitted++;
+		}
+	}
+
+	//
+	private static void close(Reader r) {
+		try {
+			r.close();
+		} catch(IOException e) {
+			// the result has the rejection already
+		}
+	}
+
+	//
+	private ParseResult parse(int i, Reader r) {
+		try {
+			try {
+				return new ParseResult(i, parser.parseTable(r, options),
+						null);
+			} finally {
+				r.close();
+			}
+		} catch(IOException e) {
+			return new ParseResult(i, null, e);
+		} catch(RuntimeException e) {
+			return new ParseResult(i, null, e);
+		}
+	}
+
+	//
+	private ParseResult take() {
+		if(!rejected.isEmpty()) {
+			return rejected.remove();
+		}
+
+		try {
+			return service.take().get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch(ExecutionException e) {
+			// only errors escape from parse
+			throw (Error)e.getCause();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+		fill();
+		return delivered < submitted;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	@Override
+	public ParseResult next() {
+		ParseResult r;
+
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		} else if(done == null) {
+			r = take();
+		} else {
+			while(!done.containsKey(delivered)) {
+				r = take();
+				done.put(r.getIndex(), r);
+			}
+			r = done.remove(delivered);
+		}
+		delivered++;
+		fill();
+		return r;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#remove()
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+}
@@ -65,7 +65,8 @@ implements Transition<Scratch, ParserState> {
 			} else if(q.get().isBound()) {
 				throw new IllegalStateException();
 			} else {
-				q.forward();
+				// the mark is on a junction
+				q.forward().forwardToJunction();
 			}
 			return state;
 		case DRAW_BORDER_LEFT_2:
@@ -98,7 +99,8 @@ implements Transition<Scratch, ParserState> {
 			} else if(q.get().isBound()) {
 				throw new IllegalStateException();
 			} else {
-				q.forward();
+				// the mark is on a junction
+				q.forward().forwardToJunction();
 			}
 			return state;
 		default:
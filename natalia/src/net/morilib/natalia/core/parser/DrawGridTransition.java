@@ -18,11 +18,12 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
 public class DrawGridTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	@Override
 	public ParserState transit(Quadro<Scratch> q, ParserState state) {
@@ -54,6 +55,21 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case DRAW_GRID_INIT:
+		case TFRAME_END:
+		case DRAW_GRID_RETURN:
+			return null;
+		default:
+			return TraverseFrameTransition.INSTANCE;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
@@ -18,7 +18,9 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.core.TableModelBuilders;
 import net.morilib.natalia.lba2d.Quadro;
+import net.morilib.natalia.lba2d.TextSpans;
 import net.morilib.natalia.lba2d.Transition;
 
 /**
@@ -48,7 +50,7 @@ implements Transition<Scratch, ParserState> {
 				q.turnRight().forward();
 				return ParserState.EXTRACT_TEXT_MOVE2;
 			} else if(q.get().isWall() || q.get().isJunction()) {
-				q.forward();
+				q.forward().skipWalls();
 			} else {
 				throw new IllegalStateException();
 			}
@@ -68,7 +70,7 @@ implements Transition<Scratch, ParserState> {
 				q.turnLeft();
 				return ParserState.EXTRACT_TEXT_END;
 			} else if(q.get().isWall() || q.get().isJunction()) {
-				q.forward();
+				q.forward().skipWalls();
 			} else {
 				throw new IllegalStateException();
 			}
@@ -113,12 +115,13 @@ implements Transition<Scratch, ParserState> {
 			}
 
 			if(q.get().isJunction() && q.peekLeft().isWall()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						q.getRowRegister() - q.getRowSpanRegister() + 1,
 						q.getColumnRegister(),
 						q.getRowSpanRegister(),
 						q.getColumnSpanRegister(),
-						q.getTextRegister().trim());
+						TextSpans.trim(q.getTextRegisterSequence()));
 				q.setColumnRegister(q.getColumnRegister() +
 						q.getColumnSpanRegister() - 1);
 				return ParserState.EXTRACT_TEXT_END;
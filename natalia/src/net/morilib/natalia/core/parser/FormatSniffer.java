@@ -0,0 +1,392 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.morilib.automata.DFA;
+import net.morilib.automata.DFAState;
+import net.morilib.automata.NFAState;
+import net.morilib.automata.dfa.ConvertedRangeDFA;
+import net.morilib.automata.nfa.RegexParseException;
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.db.parser.DBTextParser;
+import net.morilib.natalia.lba2d.QuadroFactory;
+import net.morilib.regex.dfa.RegexParser;
+
+/**
+ * Guesses the format of a table from the first lines of a text and
+ * hands the text to the parser of the format.
+ * <p>Each line is matched by DFAs compiled once from regular
+ * expressions, so sniffing costs a pass over the lines which are
+ * looked at and no parse.
+ */
+public class FormatSniffer {
+
+	/**
+	 * The formats of tables.
+	 */
+	public enum Format {
+		GRID_TABLE, MYSQL, PSQL, UNKNOWN;
+	}
+
+	/**
+	 * A guessed format.
+	 */
+	public static class Result {
+
+		//
+		private Format format;
+		private double confidence;
+		private int line;
+
+		//
+		Result(Format format, double confidence, int line) {
+			this.format = format;
+			this.confidence = confidence;
+			this.line = line;
+		}
+
+		/**
+		 * 
+		 * @return
+		 */
+		public Format getFormat() {
+			return format;
+		}
+
+		/**
+		 * gets how sure the guess is, from 0 to 1.
+		 * 
+		 * @return
+		 */
+		public double getConfidence() {
+			return confidence;
+		}
+
+		/**
+		 * gets the line where the table begins, counted from 0.
+		 * 
+		 * @return the line, or -1 if the format is unknown
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString() {
+			return format + " " + confidence;
+		}
+
+	}
+
+	//
+	private static final int LINES = 64;
+	private static final int MARK_LIMIT = 1 << 16;
+	private static final FormatSniffer INS = new FormatSniffer();
+
+	//
+	private static final DFA<Object, NFAState, Integer> BORDER =
+			compile("[ \\t]*\\+[-=]+(\\+[-=]+)*\\+[ \\t]*");
+	private static final DFA<Object, NFAState, Integer> BOX_ROW =
+			compile("[ \\t]*\\|.*\\|[ \\t]*");
+	private static final DFA<Object, NFAState, Integer> GRID_LINE =
+			compile("[ \\t]*[+|].*[+|][ \\t]*");
+	private static final DFA<Object, NFAState, Integer> GRID_TOP =
+			compile(".*\\+[-=]+\\+.*");
+	private static final DFA<Object, NFAState, Integer> AXIS =
+			compile("-+(\\+-+)*[ \\t]*");
+	private static final DFA<Object, NFAState, Integer> PSQL_FOOTER =
+			compile("\\([0-9]+ rows?\\)[ \\t]*");
+	private static final DFA<Object, NFAState, Integer> MYSQL_FOOTER =
+			compile("([0-9]+ rows? in set|Empty set).*");
+
+	//
+	private TableParser tableParser;
+	private DBTextParser dbTextParser;
+	private int lines;
+
+	/**
+	 * 
+	 */
+	public FormatSniffer() {
+		this(TableParser.getInstance(), DBTextParser.getInstance(),
+				LINES);
+	}
+
+	/**
+	 * 
+	 * @param t the parser of grid tables and the output of mysql
+	 * @param d the parser of the output of psql
+	 * @param lines the number of the lines which are looked at
+	 */
+	public FormatSniffer(TableParser t, DBTextParser d, int lines) {
+		if(lines < 1) {
+			throw new IllegalArgumentException();
+		}
+		tableParser = t;
+		dbTextParser = d;
+		this.lines = lines;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public static final FormatSniffer getInstance() {
+		return INS;
+	}
+
+	//
+	private static DFA<Object, NFAState, Integer> compile(String re) {
+		try {
+			return ConvertedRangeDFA.convertDFA(RegexParser.parse(re));
+		} catch(RegexParseException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	//
+	private static boolean matches(DFA<Object, NFAState, Integer> d,
+			String s) {
+		DFAState<Object, NFAState, Integer> q = d.getInitialState();
+
+		for(int i = 0; i < s.length(); i++) {
+			if((q = q.goChar(s.charAt(i))).isDead()) {
+				return false;
+			}
+		}
+		return q.isAccepted();
+	}
+
+	// true if the line has walls under the junctions of the axis
+	private static boolean alignsTo(String s, String axis) {
+		int k = 0, x = 0;
+
+		for(int i = 0; i < s.length() && k < axis.length(); i++) {
+			if((k = axis.indexOf('+', k)) < 0) {
+				return true;
+			} else if(x == k && s.charAt(i) != '|') {
+				return false;
+			} else if(x == k) {
+				k++;
+			} else if(x > k) {
+				return false;
+			}
+			x += QuadroFactory.width(s.charAt(i));
+		}
+		return axis.indexOf('+', k) < 0;
+	}
+
+	//
+	private static Result sniffPSQL(List<String> l, int i) {
+		String a = l.get(i);
+		double c;
+		int k;
+
+		if(!alignsTo(l.get(i - 1), a)) {
+			return null;
+		}
+
+		// a line of hyphens may underline a title
+		if(a.indexOf('+') < 0) {
+			c = 0.3;
+		} else if(i + 1 < l.size() && l.get(i + 1).trim().length() > 0 &&
+				alignsTo(l.get(i + 1), a)) {
+			c = 0.8;
+		} else {
+			c = 0.6;
+		}
+
+		for(k = i + 1; k < l.size() && alignsTo(l.get(k), a); k++) {
+			if(a.indexOf('+') < 0 && (l.get(k).trim().length() == 0 ||
+					matches(PSQL_FOOTER, l.get(k)))) {
+				break;
+			}
+		}
+
+		if(k < l.size() && matches(PSQL_FOOTER, l.get(k))) {
+			c = a.indexOf('+') < 0 ? 0.8 : 1.0;
+		}
+		return new Result(Format.PSQL, c, i - 1);
+	}
+
+	//
+	private static Result sniffBox(List<String> l, int i) {
+		List<Integer> sections = new ArrayList<Integer>();
+		boolean rows = true, same = true;
+		int k, n = 0;
+
+		for(k = i + 1; k < l.size() && matches(GRID_LINE, l.get(k));
+				k++) {
+			if(matches(BORDER, l.get(k))) {
+				sections.add(n);
+				same = same && l.get(k).trim().equals(l.get(i).trim());
+				n = 0;
+			} else {
+				rows = rows && matches(BOX_ROW, l.get(k));
+				n++;
+			}
+		}
+
+		if(n > 0 || sections.isEmpty()) {
+			// the box is not closed in the lines looked at
+			return new Result(Format.GRID_TABLE, 0.6, i);
+		} else if(!rows || !same || sections.size() != 2 ||
+				sections.get(0) != 1) {
+			return new Result(Format.GRID_TABLE, 0.9, i);
+		} else if(k < l.size() && matches(MYSQL_FOOTER, l.get(k))) {
+			return new Result(Format.MYSQL, 1.0, i);
+		} else if(sections.get(1) > 1) {
+			// a grid of two rows may have a cell of many lines
+			return new Result(Format.MYSQL, 0.7, i);
+		} else {
+			// both parsers give the same cells
+			return new Result(Format.MYSQL, 0.5, i);
+		}
+	}
+
+	//
+	private static Result sniff(List<String> l) {
+		Result r;
+		String s;
+
+		for(int i = 0; i < l.size(); i++) {
+			s = l.get(i);
+			if(i > 0 && l.get(i - 1).trim().length() > 0 &&
+					matches(AXIS, s) &&
+					(r = sniffPSQL(l, i)) != null) {
+				return r;
+			} else if(matches(BORDER, s)) {
+				return sniffBox(l, i);
+			} else if(matches(GRID_TOP, s)) {
+				// tables side by side or after some text
+				return new Result(Format.GRID_TABLE, 0.6, i);
+			}
+		}
+		return new Result(Format.UNKNOWN, 0.0, -1);
+	}
+
+	// splits the text into lines as BufferedReader#readLine does
+	private List<String> split(CharSequence s, boolean eof) {
+		List<String> l = new ArrayList<String>();
+		int b = 0;
+
+		for(int i = 0; i < s.length() && l.size() < lines; i++) {
+			if(s.charAt(i) == '\n' || s.charAt(i) == '\r') {
+				l.add(s.subSequence(b, i).toString());
+				if(s.charAt(i) == '\r' && i + 1 < s.length() &&
+						s.charAt(i + 1) == '\n') {
+					i++;
+				}
+				b = i + 1;
+			}
+		}
+
+		// the last line is cut off unless the text ends there
+		if(eof && b < s.length() && l.size() < lines) {
+			l.add(s.subSequence(b, s.length()).toString());
+		}
+		return l;
+	}
+
+	/**
+	 * guesses the format of the given text.
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public Result sniff(String s) {
+		return sniff(split(s, true));
+	}
+
+	/**
+	 * guesses the format of the given text.
+	 * The lines in the first 64K characters are looked at and
+	 * the reader is reset to where it was, so the text may be read
+	 * again.
+	 * 
+	 * @param rd
+	 * @return
+	 * @throws IOException
+	 */
+	public Result sniff(BufferedReader rd) throws IOException {
+		char[] b = new char[MARK_LIMIT];
+		int n = 0, k = 0;
+
+		rd.mark(MARK_LIMIT);
+		try {
+			while(n < b.length && (k = rd.read(b, n, b.length - n)) >= 0) {
+				n += k;
+			}
+		} finally {
+			rd.reset();
+		}
+		return sniff(split(CharBuffer.wrap(b, 0, n), k < 0));
+	}
+
+	/**
+	 * parses the given text by the parser of its format.
+	 * 
+	 * @param s
+	 * @return
+	 * @throws ParserException if the format is unknown
+	 */
+	public TableModel parse(String s) {
+		switch(sniff(s).getFormat()) {
+		case GRID_TABLE:
+			return tableParser.parseTable(s);
+		case MYSQL:
+			return tableParser.parseMySQLOutput(s);
+		case PSQL:
+			return dbTextParser.parseDBText(s);
+		default:
+			throw new ParserException("unknown format");
+		}
+	}
+
+	/**
+	 * parses the given text by the parser of its format.
+	 * 
+	 * @param ins
+	 * @return
+	 * @throws IOException
+	 * @throws ParserException if the format is unknown
+	 */
+	public TableModel parse(Reader ins) throws IOException {
+		BufferedReader rd = new BufferedReader(ins);
+
+		switch(sniff(rd).getFormat()) {
+		case GRID_TABLE:
+			return tableParser.parseTable(rd);
+		case MYSQL:
+			return tableParser.parseMySQLOutput(rd);
+		case PSQL:
+			return dbTextParser.parseDBText(rd);
+		default:
+			throw new ParserException("unknown format");
+		}
+	}
+
+}
@@ -18,19 +18,29 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
+import net.morilib.natalia.lba2d.TransitionRoutes;
 
 /**
  *
  */
 public class FrameMainTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
 			new FrameMainTransition();
 
+	//
+	@SuppressWarnings("unchecked")
+	private static final TransitionRoutes<Scratch, ParserState> ROUTES =
+			new TransitionRoutes<Scratch, ParserState>(ParserState.class,
+					FrameTransition.INSTANCE,
+					TraverseFrameTransition.INSTANCE,
+					TraverseRowTransition.INSTANCE);
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#transit(net.morilib.natalia.Quadro, net.morilib.natalia.ParserState)
 	 */
@@ -74,19 +84,25 @@ implements Transition<Scratch, ParserState> {
 			}
 			return state;
 		default:
-			if(FrameTransition.INSTANCE.getStates().contains(state)) {
-				return FrameTransition.INSTANCE.transit(q, state);
-			} else if(TraverseFrameTransition.INSTANCE.getStates()
-					.contains(state)) {
-				return TraverseFrameTransition.INSTANCE.transit(q,
-						state);
-			} else if(TraverseRowTransition.INSTANCE.getStates()
-					.contains(state)) {
-				return TraverseRowTransition.INSTANCE.transit(q,
-						state);
-			} else {
-				throw new IllegalStateException();
-			}
+			return ROUTES.transit(q, state);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case FMAIN_INIT:
+		case FRAME_END:
+		case TFRAME_END:
+		case FMAIN_RETURN:
+		case TROW_END:
+		case FMAIN_FORWARD:
+			return null;
+		default:
+			return ROUTES.get(state);
 		}
 	}
 
@@ -17,8 +17,8 @@ package net.morilib.natalia.core.parser;
 
 import java.util.EnumSet;
 
-import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -27,7 +27,7 @@ import net.morilib.natalia.lba2d.Transition;
  * @author Yuichiro MORIGUCHI
  */
 public class FrameSearchTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
@@ -44,7 +44,7 @@ implements Transition<Scratch, ParserState> {
 				q.moveEast();
 				return ParserState.FSEARCH_FIND1;
 			} else if(q.get().isBound()) {
-				throw new ParserException();
+				return ParserState.FSEARCH_FIND0;
 			} else {
 				q.moveEast();
 				return ParserState.FSEARCH_FIND0;
@@ -54,9 +54,11 @@ implements Transition<Scratch, ParserState> {
 				q.moveEast();
 				return ParserState.FSEARCH_FIND1;
 			} else if(q.get().isBound()) {
-				q.crlf();
+				if(q.crlf().get().isBound()) {
+					return ParserState.FSEARCH_END;
+				}
 			} else {
-				q.moveEast();
+				q.turnEast().forward().forwardToJunction();
 			}
 			return state;
 		case FSEARCH_FIND1:
@@ -81,6 +83,23 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case FSEARCH_INIT:
+		case FSEARCH_FIND0:
+		case FSEARCH_FIND1:
+		case FSEARCH_FIND2:
+		case FMAIN_END:
+			return null;
+		default:
+			return FrameMainTransition.INSTANCE;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.core.parser.Transition#getStates()
 	 */
@@ -19,11 +19,12 @@ import java.util.EnumSet;
 
 import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
 public class FrameTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
@@ -53,6 +54,21 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case FRAME_LINE_INIT:
+		case FRAME_LINE_WALL:
+		case FRAME_LINE_JUNCTION:
+			return FrameLineTransition.INSTANCE;
+		default:
+			return null;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
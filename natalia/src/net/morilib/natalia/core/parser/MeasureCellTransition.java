@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.util.Set;
+
+import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
+import net.morilib.natalia.lba2d.Quadro;
+import net.morilib.natalia.lba2d.Transition;
+
+/**
+ * A transition which parses tables as FrameSearchTransition does
+ * but does not read the texts of the cells.
+ * <p>The head goes down the left wall of each cell instead of
+ * reading its lines, so the cells are found with their spans and
+ * have empty texts.
+ */
+public class MeasureCellTransition
+implements CompositeTransition<Scratch, ParserState> {
+
+	//
+	static final Transition<Scratch, ParserState> INSTANCE =
+			new MeasureCellTransition();
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Transition#transit(net.morilib.natalia.lba2d.Quadro, java.lang.Object)
+	 */
+	@Override
+	public ParserState transit(Quadro<Scratch> q, ParserState state) {
+		switch(state) {
+		case EXTRACT_TEXT_COLLECT:
+			// returns to the left wall at once
+			q.turnLeft().turnLeft().forward();
+			return ParserState.EXTRACT_TEXT_COLLECT_CR1;
+		default:
+			return FrameSearchTransition.INSTANCE.transit(q, state);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case EXTRACT_TEXT_COLLECT:
+			return null;
+		default:
+			return FrameSearchTransition.INSTANCE;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Transition#getStates()
+	 */
+	@Override
+	public Set<ParserState> getStates() {
+		return FrameSearchTransition.INSTANCE.getStates();
+	}
+
+}
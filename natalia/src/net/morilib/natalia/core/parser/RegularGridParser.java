@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import net.morilib.natalia.core.ParseAbortedException;
+import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.core.TableModelBuilder;
+import net.morilib.natalia.core.TableModelBuilders;
+import net.morilib.natalia.core.TableRegion;
+import net.morilib.natalia.lba2d.ParseLimit;
+import net.morilib.natalia.lba2d.Pixel;
+import net.morilib.natalia.lba2d.Quadro;
+import net.morilib.natalia.lba2d.TextSpans;
+
+/**
+ * Parses a table whose cells are on a regular grid without the LBA.
+ * <p>The columns are taken from the junctions of the top line of
+ * the frame, and every other line must be either a separator which
+ * has junctions just at the columns or a line of text which has
+ * walls just at the columns.  Anything else, a span, a border
+ * character in a cell or a border touching the frame from outside,
+ * makes the parser give up so that the LBA parses the table.
+ * <p>Each line which is checked costs a step of the limit of the
+ * parse, and so does each row of cells which is read.
+ */
+final class RegularGridParser {
+
+	//
+	private static final int IRREGULAR = 0;
+	private static final int SEPARATOR = 1;
+	private static final int TEXT = 2;
+
+	//
+	private RegularGridParser() {}
+
+	//
+	private static boolean isBorder(Pixel p) {
+		return p.isWall() || p.isJunction();
+	}
+
+	//
+	private static Pixel at(Quadro<?> q, int row, int column) {
+		TableParser.moveTo(q, row, column);
+		return q.get();
+	}
+
+	//
+	private static int[] add(int[] a, int n, int x) {
+		int[] b = a;
+
+		if(n >= a.length) {
+			b = new int[a.length * 2];
+			System.arraycopy(a, 0, b, 0, n);
+		}
+		b[n] = x;
+		return b;
+	}
+
+	//
+	private static CharSequence cell(Quadro<?> q, int top, int left,
+			int bottom, int right) {
+		q.clearTextRegister();
+		for(int r = top; r < bottom; r++) {
+			for(int c = left; c < right; c++) {
+				if(!at(q, r, c).isEqualsToLeft()) {
+					q.appendTextRegister(q.get().getChar());
+				}
+			}
+			q.appendTextRegister('\n');
+		}
+		return TextSpans.trim(q.getTextRegisterSequence());
+	}
+
+	//
+	private static int line(Quadro<?> q, int row, int[] bs, int n) {
+		Pixel p;
+
+		if(at(q, row, bs[0]).isJunction()) {
+			for(int c = bs[0] + 1, j = 1; c <= bs[n - 1]; c++) {
+				p = at(q, row, c);
+				if(c == bs[j]) {
+					if(!p.isJunction()) {
+						return IRREGULAR;
+					}
+					j++;
+				} else if(!p.isWall()) {
+					return IRREGULAR;
+				}
+			}
+			return SEPARATOR;
+		} else if(at(q, row, bs[0]).isWall()) {
+			for(int c = bs[0] + 1, j = 1; c <= bs[n - 1]; c++) {
+				p = at(q, row, c);
+				if(c == bs[j]) {
+					if(!p.isWall()) {
+						return IRREGULAR;
+					}
+					j++;
+				} else if(isBorder(p) || p.isBound()) {
+					return IRREGULAR;
+				}
+			}
+			return TEXT;
+		} else {
+			return IRREGULAR;
+		}
+	}
+
+	/**
+	 * parses the table whose top left corner is under the head.
+	 * The head is moved.
+	 * 
+	 * @param q
+	 * @return the table, or null if the table is not a regular grid
+	 */
+	static TableRegion parse(Quadro<Scratch> q) {
+		return parse(q, true, null);
+	}
+
+	/**
+	 * parses the table whose top left corner is under the head.
+	 * The head is moved.
+	 * 
+	 * @param q
+	 * @param text false if the cells are left empty
+	 * @param l the limit of the parse, or null
+	 * @return the table, or null if the table is not a regular grid
+	 * @throws ParseAbortedException if the parse is over the limit
+	 */
+	static TableRegion parse(Quadro<Scratch> q, boolean text,
+			ParseLimit l) {
+		int top, left, right, bottom, n = 1, m = 1, lines = 0;
+		int[] bs = new int[8], ss = new int[8];
+		TableModelBuilder b;
+		Pixel p;
+		int c;
+
+		top = q.getRowPosition();
+		left = q.getColumnPosition();
+		if(!at(q, top, left).isJunction()) {
+			return null;
+		}
+
+		// columns
+		bs[0] = left;
+		for(c = left + 1; isBorder(p = at(q, top, c)); c++) {
+			if(!p.isJunction()) {
+				// a wall
+			} else if(c == bs[n - 1] + 1) {
+				return null;
+			} else {
+				bs = add(bs, n++, c);
+			}
+		}
+
+		right = c - 1;
+		if(n < 2 || bs[n - 1] != right) {
+			return null;
+		}
+
+		// rows
+		ss[0] = top;
+		for(int r = top + 1; true; r++) {
+			if(l != null) {
+				l.step(q, ParserState.FMAIN_INIT);
+			}
+
+			switch(line(q, r, bs, n)) {
+			case TEXT:
+				lines++;
+				continue;
+			case SEPARATOR:
+				if(lines == 0) {
+					return null;
+				}
+				ss = add(ss, m++, r);
+				lines = 0;
+				break;
+			default:
+				return null;
+			}
+
+			if(isBorder(at(q, r + 1, left)) !=
+					isBorder(at(q, r + 1, right))) {
+				return null;
+			} else if(!isBorder(at(q, r + 1, left))) {
+				bottom = r;
+				break;
+			}
+		}
+
+		// nothing touches the frame from outside
+		for(int r = top - 1; r <= bottom + 1; r++) {
+			if(isBorder(at(q, r, left - 1)) ||
+					isBorder(at(q, r, right + 1))) {
+				return null;
+			}
+		}
+
+		for(c = left; c <= right; c++) {
+			if(isBorder(at(q, top - 1, c)) ||
+					isBorder(at(q, bottom + 1, c))) {
+				return null;
+			}
+		}
+
+		// cells
+		b = TableParser.newBuilder(l);
+		for(int i = 1; i < m; i++) {
+			if(l != null) {
+				l.step(q, ParserState.FMAIN_INIT);
+			}
+
+			for(int k = 1; k < n; k++) {
+				TableModelBuilders.appendCell(b, i, k, 1, 1,
+						!text ? "" : cell(q, ss[i - 1] + 1, bs[k - 1] + 1,
+								ss[i], bs[k]));
+			}
+		}
+		return new TableRegion(top, left, bottom, right,
+				b.toTableModel());
+	}
+
+}
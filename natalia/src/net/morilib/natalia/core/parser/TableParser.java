@@ -22,23 +22,169 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import net.morilib.natalia.core.ColumnarTableModel;
+import net.morilib.natalia.core.ParseAbortedException;
+import net.morilib.natalia.core.ParseResult;
+import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
 import net.morilib.natalia.core.SimpleTableModelBuilder;
+import net.morilib.natalia.core.TableCell;
+import net.morilib.natalia.core.TableLocation;
 import net.morilib.natalia.core.TableModel;
 import net.morilib.natalia.core.TableModelBuilder;
+import net.morilib.natalia.core.TableRegion;
+import net.morilib.natalia.db.parser.DBRowReader;
+import net.morilib.natalia.db.parser.DBTextParser;
+import net.morilib.natalia.lba2d.CompiledTransition;
+import net.morilib.natalia.lba2d.ParseLimit;
+import net.morilib.natalia.lba2d.ParseListener;
+import net.morilib.natalia.lba2d.ParseOptions;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.QuadroFactory;
+import net.morilib.natalia.lba2d.QuadroRecycler;
+import net.morilib.natalia.lba2d.TextArt;
 import net.morilib.natalia.lba2d.Transition;
+import net.morilib.natalia.lba2d.WindowedTextArtReader;
 
 /**
- *
+ * A parser keeps no state of parses, so an instance may be
+ * shared between threads if its listener may be called by them.
  */
 public class TableParser {
 
 	//
 	private static final int INFINITE_LOOP = 720000;
 	private static final TableParser INS = new TableParser();
+	private static final EnumSet<ParserState> SEARCH_ENDS = EnumSet.of(
+			ParserState.FMAIN_INIT, ParserState.FSEARCH_END);
+
+	//
+	private static final Transition<Scratch, ParserState> MAIN =
+			CompiledTransition.compile(FrameSearchTransition.INSTANCE,
+					ParserState.class);
+	private static final Transition<Scratch, ParserState> MEASURE =
+			CompiledTransition.compile(MeasureCellTransition.INSTANCE,
+					ParserState.class);
+
+	/**
+	 * A session which parses texts one after another reusing the
+	 * planes of the text, the scratches and the registers.
+	 * <p>The buffers grow to the largest text which is parsed, so
+	 * parsing in the steady state allocates little more than the
+	 * tables.  A session must not be shared between threads.
+	 */
+	public class Session {
+
+		//
+		private QuadroRecycler<Scratch> recycler =
+				new QuadroRecycler<Scratch>(Scratch.NONE);
+
+		//
+		private Session() {}
+
+		/**
+		 * 
+		 * @param s
+		 * @return
+		 */
+		public TableModel parseTable(CharSequence s) {
+			return parseTable(s, options);
+		}
+
+		/**
+		 * 
+		 * @param s
+		 * @param o the limits of this parse, or null
+		 * @return
+		 * @see TableParser#parseTable(String, ParseOptions)
+		 */
+		public TableModel parseTable(CharSequence s, ParseOptions o) {
+			return detach(TableParser.parseTable(
+					recycler.newInstance(s), listener, limit(o)));
+		}
+
+		/**
+		 * parses all tables in the given text.
+		 * 
+		 * @param s
+		 * @return the tables in the order of their top left corners
+		 */
+		public List<TableRegion> parseAllTables(CharSequence s) {
+			return parseAllTables(s, options);
+		}
+
+		/**
+		 * parses all tables in the given text.
+		 * 
+		 * @param s
+		 * @param o the limits of this parse, or null
+		 * @return the tables in the order of their top left corners
+		 * @see TableParser#parseTable(String, ParseOptions)
+		 */
+		public List<TableRegion> parseAllTables(CharSequence s,
+				ParseOptions o) {
+			List<TableRegion> l;
+
+			l = TableParser.parseAllTables(recycler.newInstance(s),
+					listener, limit(o));
+			for(TableRegion x : l) {
+				detach(x.getTableModel());
+			}
+			return l;
+		}
+
+		/**
+		 * releases the buffers which this session keeps.
+		 */
+		public void reset() {
+			recycler.clear();
+		}
+
+	}
+
+	//
+	private ParseListener<Scratch, ParserState> listener;
+	private ParseOptions options;
+
+	/**
+	 * 
+	 */
+	public TableParser() {}
+
+	/**
+	 * 
+	 * @param l a listener of parses, or null
+	 */
+	public TableParser(ParseListener<Scratch, ParserState> l) {
+		listener = l;
+	}
+
+	/**
+	 * 
+	 * @param l a listener of parses, or null
+	 * @param o the limits of parses, or null
+	 */
+	public TableParser(ParseListener<Scratch, ParserState> l,
+			ParseOptions o) {
+		listener = l;
+		options = o;
+	}
 
 	/**
 	 * 
@@ -48,13 +194,41 @@ public class TableParser {
 		return INS;
 	}
 
+	/**
+	 * 
+	 * @return a new session of this parser
+	 */
+	public Session newSession() {
+		return new Session();
+	}
+
+	// builds the texts of the cells so that the model does not read
+	// the text any more, before the text is reused or when it is
+	// not an immutable array in memory
+	static TableModel detach(TableModel m) {
+		for(TableCell c : m) {
+			c.getCell();
+		}
+		return m;
+	}
+
 	//
-	static void go(ParserState init, ParserState end,
+	private ParseLimit limit() {
+		return limit(options);
+	}
+
+	//
+	private static ParseLimit limit(ParseOptions o) {
+		return o == null ? null : o.start();
+	}
+
+	//
+	static ParserState go(ParserState init, EnumSet<ParserState> ends,
 			Transition<Scratch, ParserState> t, Quadro<Scratch> q) {
 		ParserState s = init, p = null;
 		int c = 0;
 
-		for(; !s.equals(end); p = s) {
+		for(; !ends.contains(s); p = s) {
 			s = t.transit(q, s);
 			if(!s.equals(p)) {
 				c = 0;
@@ -62,26 +236,307 @@ public class TableParser {
 				throw new IllegalStateException("maybe infinite loop");
 			}
 		}
+		return s;
+	}
+
+	//
+	static ParserState go(ParserState init, EnumSet<ParserState> ends,
+			Transition<Scratch, ParserState> t, Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b) {
+		ParserState s = init, p = null, f = init;
+		long n;
+		int c = 0;
+
+		if(l == null && b == null) {
+			return go(init, ends, t, q);
+		} else if(l != null) {
+			l.parseStarted(q, init);
+		}
+
+		try {
+			for(; !ends.contains(s); p = s) {
+				f = s;
+				if(l == null) {
+					s = t.transit(q, f);
+				} else {
+					n = System.nanoTime();
+					s = t.transit(q, f);
+					l.transited(q, f, s,
+							CompiledTransition.handlerOf(t, f),
+							System.nanoTime() - n);
+				}
+
+				if(b != null) {
+					b.step(q, s);
+				}
+
+				if(!s.equals(p)) {
+					c = 0;
+				} else if(c++ > INFINITE_LOOP) {
+					throw new IllegalStateException(
+							"maybe infinite loop");
+				}
+			}
+			return s;
+		} catch(RuntimeException e) {
+			if(l != null) {
+				l.parseFailed(q, f, e);
+			}
+			throw e;
+		}
+	}
+
+	//
+	static void go(ParserState init, ParserState end,
+			Transition<Scratch, ParserState> t, Quadro<Scratch> q) {
+		go(init, EnumSet.of(end), t, q);
+	}
+
+	//
+	static void go(ParserState init, ParserState end,
+			Transition<Scratch, ParserState> t, Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b) {
+		go(init, EnumSet.of(end), t, q, l, b);
+	}
+
+	//
+	static Quadro<Scratch> newWindowQuadro(
+			BufferedReader rd) throws IOException {
+		TextArt t;
+
+		if((t = new WindowedTextArtReader(rd).nextWindow()) == null) {
+			throw new ParserException();
+		}
+		return QuadroFactory.newInstance(t, Scratch.NONE);
 	}
 
 	//
 	static TableModel parseTable(Quadro<Scratch> q) {
-		q.setTableModelBuilder(new SimpleTableModelBuilder());
-		go(ParserState.FSEARCH_INIT, ParserState.FSEARCH_END,
-				FrameSearchTransition.INSTANCE, q);
+		return parseTable(q, null, null);
+	}
+
+	//
+	static TableModel parseTable(Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b) {
+		ParserException e;
+		TableModel m;
+
+		if(go(ParserState.FSEARCH_INIT, SEARCH_ENDS, MAIN, q, l, b) !=
+				ParserState.FMAIN_INIT) {
+			// no frames are found
+			e = new ParserException();
+			if(l != null) {
+				l.parseFailed(q, ParserState.FSEARCH_END, e);
+			}
+			throw e;
+		}
+
+		m = parseFrame(q, l, b);
+		if(l != null) {
+			l.tableParsed(m);
+		}
+		return m;
+	}
+
+	// the builder of a table by the options of the parse
+	static TableModelBuilder newBuilder(ParseLimit b) {
+		return b != null ?
+				b.newTableModelBuilder() : new SimpleTableModelBuilder();
+	}
+
+	//
+	static TableModel parseFrame(Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b) {
+		TableRegion x;
+
+		// tries the regular grid first
+		if((x = RegularGridParser.parse(q.fork(), true, b)) != null) {
+			return x.getTableModel();
+		}
+		// returns to the search as the whole parse does
+		q.setTableModelBuilder(newBuilder(b));
+		go(ParserState.FMAIN_INIT, ParserState.FSEARCH_END, MAIN, q, l, b);
 		return q.getTableModelBuilder().toTableModel();
 	}
 
+	//
+	static void moveTo(Quadro<?> q, int row, int column) {
+		while(q.getRowPosition() < row)  q.moveSouth();
+		while(q.getRowPosition() > row)  q.moveNorth();
+		while(q.getColumnPosition() < column)  q.moveEast();
+		while(q.getColumnPosition() > column)  q.moveWest();
+	}
+
+	//
+	static int edge(Quadro<?> q) {
+		while(q.peekForward().isWall() || q.peekForward().isJunction()) {
+			q.forward();
+		}
+		return q.isDirectionLongitudinal() ?
+				q.getColumnPosition() : q.getRowPosition();
+	}
+
+	//
+	static List<TableRegion> scanTables(Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b,
+			Transition<Scratch, ParserState> parse) {
+		List<TableRegion> r = new ArrayList<TableRegion>();
+		List<TableRegion> a = new ArrayList<TableRegion>();
+		ParserState s = ParserState.FSEARCH_INIT;
+		Iterator<TableRegion> i;
+		int top, left, right;
+		TableRegion x, y;
+		Quadro<Scratch> t;
+		TableModel m;
+
+		while(go(s, SEARCH_ENDS, MAIN, q, l, b) ==
+				ParserState.FMAIN_INIT) {
+			top = q.getRowPosition();
+			left = q.getColumnPosition();
+			s = ParserState.FSEARCH_FIND0;
+
+			// skips corners in the tables which are found
+			y = null;
+			for(i = a.iterator(); i.hasNext();) {
+				if((x = i.next()).getBottom() < top) {
+					i.remove();
+				} else if(x.contains(top, left)) {
+					y = x;
+				}
+			}
+
+			if(y != null) {
+				moveTo(q, top, y.getRight() + 1);
+				continue;
+			}
+
+			if(parse != null && (x = RegularGridParser.parse(q.fork(),
+					parse == MAIN, b)) != null) {
+				r.add(x);
+				a.add(x);
+				if(l != null && parse == MAIN) {
+					l.tableParsed(x.getTableModel());
+				}
+				moveTo(q, top, x.getRight() + 1);
+				continue;
+			}
+
+			t = q.fork();
+			t.setTableModelBuilder(parse != null ?
+					newBuilder(b) : new SimpleTableModelBuilder());
+			try {
+				// only walks around the frame if not parse
+				go(ParserState.FMAIN_INIT, parse != null ?
+						ParserState.FMAIN_END : ParserState.FRAME_END,
+						parse != null ? parse : MAIN, t, l, b);
+			} catch(ParseAbortedException e) {
+				throw e;
+			} catch(RuntimeException e) {
+				// the LBA may also throw IllegalStateException
+				q.moveEast();
+				continue;
+			}
+
+			m = parse != null ?
+					t.getTableModelBuilder().toTableModel() : null;
+			moveTo(t, top, left);
+			right = edge(t.turnEast());
+			x = new TableRegion(top, left, edge(t.turnSouth()), right, m);
+			r.add(x);
+			a.add(x);
+			if(l != null && parse == MAIN) {
+				l.tableParsed(m);
+			}
+			moveTo(q, top, right + 1);
+		}
+		return r;
+	}
+
+	//
+	static List<TableRegion> parseAllTables(Quadro<Scratch> q,
+			ParseListener<Scratch, ParserState> l, ParseLimit b) {
+		return scanTables(q, l, b, MAIN);
+	}
+
+	//
+	static List<TableLocation> locateTables(Quadro<Scratch> q,
+			ParseLimit b) {
+		List<TableLocation> r = new ArrayList<TableLocation>();
+		TableModel m;
+		int n;
+
+		for(TableRegion x : scanTables(q, null, b, MEASURE)) {
+			m = x.getTableModel();
+			n = 0;
+			for(TableCell c : m) {
+				if(c.getRowSpan() > 1 || c.getColumnSpan() > 1)  n++;
+			}
+			r.add(new TableLocation(x.getTop(), x.getLeft(),
+					x.getBottom(), x.getRight(), m.rowSize(),
+					m.columnSize(), n));
+		}
+		return r;
+	}
+
+	//
+	static TableModel parseRegion(TextArt t, TableRegion x,
+			ParseLimit b) {
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(t, Scratch.NONE);
+		moveTo(q, x.getTop(), x.getLeft());
+		try {
+			return parseFrame(q, null, b);
+		} finally {
+			if(b != null) {
+				b.release();
+			}
+		}
+	}
+
+	//
+	static List<TableRegion> parseAllTables(
+			BufferedReader rd, ParseListener<Scratch, ParserState> l,
+			ParseLimit b) throws IOException {
+		List<TableRegion> r = new ArrayList<TableRegion>();
+		WindowedTextArtReader w;
+		TextArt t;
+
+		w = new WindowedTextArtReader(rd);
+		while((t = w.nextWindow()) != null) {
+			for(TableRegion x : parseAllTables(
+					QuadroFactory.newInstance(t, Scratch.NONE), l, b)) {
+				r.add(x.translate(w.getRow()));
+			}
+		}
+		return r;
+	}
+
 	/**
 	 * 
 	 * @param s
 	 * @return
 	 */
 	public TableModel parseTable(String s) {
+		return parseTable(s, options);
+	}
+
+	/**
+	 * parses the table by the given limits instead of the limits of
+	 * this parser.
+	 * Cancelling the options stops this parse only if they are not
+	 * used by other parses, so a request which may be cancelled
+	 * should have its own options.
+	 * 
+	 * @param s
+	 * @param o the limits of this parse, or null
+	 * @return
+	 */
+	public TableModel parseTable(String s, ParseOptions o) {
 		Quadro<Scratch> q;
 
 		q = QuadroFactory.newInstance(s, Scratch.NONE);
-		return parseTable(q);
+		return parseTable(q, listener, limit(o));
 	}
 
 	/**
@@ -91,11 +546,23 @@ public class TableParser {
 	 * @throws IOException
 	 */
 	public TableModel parseTable(Reader ins) throws IOException {
+		return parseTable(ins, options);
+	}
+
+	/**
+	 * 
+	 * @param ins
+	 * @param o the limits of this parse, or null
+	 * @return
+	 * @throws IOException
+	 * @see #parseTable(String, ParseOptions)
+	 */
+	public TableModel parseTable(Reader ins,
+			ParseOptions o) throws IOException {
 		Quadro<Scratch> q;
 
-		q = QuadroFactory.newInstance(new BufferedReader(ins),
-				Scratch.NONE);
-		return parseTable(q);
+		q = newWindowQuadro(new BufferedReader(ins));
+		return parseTable(q, listener, limit(o));
 	}
 
 	/**
@@ -107,28 +574,406 @@ public class TableParser {
 	public TableModel parseTable(InputStream ins) throws IOException {
 		Quadro<Scratch> q;
 
-		q = QuadroFactory.newInstance(new BufferedReader(
-				new InputStreamReader(ins)), Scratch.NONE);
-		return parseTable(q);
+		q = newWindowQuadro(new BufferedReader(
+				new InputStreamReader(ins)));
+		return parseTable(q, listener, limit());
 	}
 
 	/**
+	 * parses the table in the given file.
+	 * The texts of the cells are read before this returns, so the
+	 * table does not refer to the file.
 	 * 
 	 * @param f
 	 * @return
 	 * @throws IOException
 	 */
 	public TableModel parseTable(File f) throws IOException {
-		InputStream ins = null;
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(f, Scratch.NONE);
+		return detach(parseTable(q, listener, limit()));
+	}
+
+	/**
+	 * parses all tables in the given text.
+	 * 
+	 * @param s
+	 * @return the tables in the order of their top left corners
+	 */
+	public List<TableRegion> parseAllTables(String s) {
+		return parseAllTables(s, options);
+	}
+
+	/**
+	 * parses all tables in the given text.
+	 * 
+	 * @param s
+	 * @param o the limits of this parse, or null
+	 * @return the tables in the order of their top left corners
+	 * @see #parseTable(String, ParseOptions)
+	 */
+	public List<TableRegion> parseAllTables(String s, ParseOptions o) {
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(s, Scratch.NONE);
+		return parseAllTables(q, listener, limit(o));
+	}
+
+	/**
+	 * parses all tables in the given text.
+	 * 
+	 * @param ins
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 */
+	public List<TableRegion> parseAllTables(
+			Reader ins) throws IOException {
+		return parseAllTables(ins, options);
+	}
+
+	/**
+	 * parses all tables in the given text.
+	 * 
+	 * @param ins
+	 * @param o the limits of this parse, or null
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 * @see #parseTable(String, ParseOptions)
+	 */
+	public List<TableRegion> parseAllTables(Reader ins,
+			ParseOptions o) throws IOException {
+		return parseAllTables(new BufferedReader(ins), listener,
+				limit(o));
+	}
+
+	/**
+	 * parses all tables in the given text.
+	 * 
+	 * @param ins
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 */
+	public List<TableRegion> parseAllTables(
+			InputStream ins) throws IOException {
+		return parseAllTables(new BufferedReader(
+				new InputStreamReader(ins)), listener, limit());
+	}
+
+	/**
+	 * parses all tables in the given file.
+	 * The texts of the cells are read before this returns, so the
+	 * tables do not refer to the file.
+	 * 
+	 * @param f
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 */
+	public List<TableRegion> parseAllTables(File f) throws IOException {
+		List<TableRegion> l;
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(f, Scratch.NONE);
+		l = parseAllTables(q, listener, limit());
+		for(TableRegion x : l) {
+			detach(x.getTableModel());
+		}
+		return l;
+	}
+
+	/**
+	 * locates all tables in the given text.
+	 * <p>The tables are parsed without reading the texts of their
+	 * cells, which is much cheaper than parseAllTables(String).
+	 * The listener of this parser is not called.
+	 * 
+	 * @param s
+	 * @return the tables in the order of their top left corners
+	 */
+	public List<TableLocation> locateTables(String s) {
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(s, Scratch.NONE);
+		return locateTables(q, limit());
+	}
+
+	/**
+	 * locates all tables in the given text.
+	 * 
+	 * @param ins
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 * @see #locateTables(String)
+	 */
+	public List<TableLocation> locateTables(
+			Reader ins) throws IOException {
+		List<TableLocation> r = new ArrayList<TableLocation>();
+		WindowedTextArtReader w;
+		ParseLimit b = limit();
+		TextArt t;
+
+		w = new WindowedTextArtReader(new BufferedReader(ins));
+		while((t = w.nextWindow()) != null) {
+			for(TableLocation x : locateTables(
+					QuadroFactory.newInstance(t, Scratch.NONE), b)) {
+				r.add(x.translate(w.getRow()));
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * locates all tables in the given file.
+	 * 
+	 * @param f
+	 * @return the tables in the order of their top left corners
+	 * @throws IOException
+	 * @see #locateTables(String)
+	 */
+	public List<TableLocation> locateTables(File f) throws IOException {
+		Quadro<Scratch> q;
+
+		q = QuadroFactory.newInstance(f, Scratch.NONE);
+		return locateTables(q, limit());
+	}
+
+	/**
+	 * parses all tables in the given text in parallel.
+	 * <p>The frames are located first, then each table is parsed by
+	 * the given executor on its own Quadro over the shared text.
+	 * The listener of this parser sees the locating steps and the
+	 * parsed tables only.
+	 * If a table fails to parse, the parses of the other tables are
+	 * interrupted and waited for, then the text is parsed sequentially
+	 * as parseAllTables(String) does.
+	 * The tables share the rest of the step budget after locating,
+	 * and the sequential parse has what they have left.
+	 * 
+	 * @param s
+	 * @param ex
+	 * @return the tables in the order of their top left corners
+	 * @throws InterruptedException
+	 */
+	public List<TableRegion> parseAllTables(String s,
+			ExecutorService ex) throws InterruptedException {
+		return parseAllTables(s, ex, options);
+	}
+
+	/**
+	 * parses all tables in the given text in parallel.
+	 * 
+	 * @param s
+	 * @param ex
+	 * @param o the limits of this parse, or null
+	 * @return the tables in the order of their top left corners
+	 * @throws InterruptedException
+	 * @see #parseAllTables(String, ExecutorService)
+	 * @see #parseTable(String, ParseOptions)
+	 */
+	public List<TableRegion> parseAllTables(String s, ExecutorService ex,
+			ParseOptions o) throws InterruptedException {
+		List<RegionTask> f = new ArrayList<RegionTask>();
+		List<TableRegion> l, r = new ArrayList<TableRegion>();
+		TextArt t = QuadroFactory.newTextArt(s);
+		ParseLimit b = limit(o);
+		RegionTask g;
+		TableRegion x;
+
+		l = scanTables(QuadroFactory.newInstance(t, Scratch.NONE),
+				listener, b, null);
+		for(TableRegion y : l) {
+			g = new RegionTask(t, y, b == null ? null : b.split());
+			g.future = ex.submit(g);
+			f.add(g);
+		}
 
 		try {
-			ins = new FileInputStream(f);
-			return parseTable(ins);
-		} finally {
-			if(ins != null) {
-				ins.close();
+			for(int k = 0; k < l.size(); k++) {
+				x = l.get(k);
+				r.add(new TableRegion(x.getTop(), x.getLeft(),
+						x.getBottom(), x.getRight(), f.get(k).future.get()));
+			}
+		} catch(ExecutionException e) {
+			// the other tables must not draw from the budget any more
+			for(RegionTask h : f) {
+				h.stop();
+			}
+
+			if(e.getCause() instanceof ParseAbortedException) {
+				throw (ParseAbortedException)e.getCause();
+			} else if(e.getCause() instanceof RuntimeException) {
+				// a broken table is skipped as it is in sequence
+				return parseAllTables(
+						QuadroFactory.newInstance(t, Scratch.NONE),
+						listener, b);
+			} else if(e.getCause() instanceof Error) {
+				throw (Error)e.getCause();
+			} else {
+				throw new IllegalStateException(e.getCause());
 			}
 		}
+
+		if(listener != null) {
+			for(TableRegion y : r) {
+				listener.tableParsed(y.getTableModel());
+			}
+		}
+		return r;
+	}
+
+	// a table which parseAllTables(String, ExecutorService) parses
+	private static class RegionTask implements Callable<TableModel> {
+
+		private static final int NEW = 0;
+		private static final int RUNNING = 1;
+		private static final int STOPPED = 2;
+
+		private TextArt text;
+		private TableRegion region;
+		private ParseLimit limit;
+		private Future<TableModel> future;
+		private AtomicInteger state = new AtomicInteger(NEW);
+		private CountDownLatch done = new CountDownLatch(1);
+
+		private RegionTask(TextArt t, TableRegion x, ParseLimit b) {
+			text = t;
+			region = x;
+			limit = b;
+		}
+
+		@Override
+		public TableModel call() {
+			if(!state.compareAndSet(NEW, RUNNING)) {
+				throw new CancellationException();
+			}
+
+			try {
+				return parseRegion(text, region, limit);
+			} finally {
+				done.countDown();
+			}
+		}
+
+		// interrupts the parse and waits until it ends
+		private void stop() throws InterruptedException {
+			future.cancel(true);
+			if(!state.compareAndSet(NEW, STOPPED)) {
+				done.await();
+			}
+		}
+
+	}
+
+	//
+	private static boolean hasBorder(String line) {
+		TextArt t;
+
+		t = QuadroFactory.newTextArt(Collections.singletonList(line));
+		for(int c = 0; c < t.getColumns(); c++) {
+			if(t.get(0, c).isWall() || t.get(0, c).isJunction()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * parses each input by the given executor.
+	 * <p>An input is taken when fewer than maxInFlight inputs are
+	 * being parsed or waiting to be delivered, and is closed after
+	 * it is parsed.  An input which fails or which the executor
+	 * rejects gives a result which has the error, and the rest of
+	 * the batch goes on.
+	 * 
+	 * @param inputs
+	 * @param ex the executor which parses the inputs
+	 * @param maxInFlight
+	 * @param ordered true if the results are delivered in the order
+	 *        of the inputs, or false in the order of completion
+	 * @return the results
+	 */
+	public Iterator<ParseResult> parseAll(
+			Iterator<? extends Reader> inputs, Executor ex,
+			int maxInFlight, boolean ordered) {
+		return parseAll(inputs, ex, maxInFlight, ordered, options);
+	}
+
+	/**
+	 * parses each input by the given executor.
+	 * <p>Each input is parsed by the given limits, so cancelling them
+	 * stops the rest of this batch only.
+	 * 
+	 * @param inputs
+	 * @param ex the executor which parses the inputs
+	 * @param maxInFlight
+	 * @param ordered true if the results are delivered in the order
+	 *        of the inputs, or false in the order of completion
+	 * @param o the limits of each parse, or null
+	 * @return the results
+	 * @see #parseAll(Iterator, Executor, int, boolean)
+	 */
+	public Iterator<ParseResult> parseAll(
+			Iterator<? extends Reader> inputs, Executor ex,
+			int maxInFlight, boolean ordered, ParseOptions o) {
+		return new BatchParseIterator(this, inputs, ex, maxInFlight,
+				ordered, o);
+	}
+
+	/**
+	 * parses the tables in the given text again after an edit.
+	 * <p>The lines from <i>from</i> until <i>to</i> of the text which
+	 * the tables were parsed from are replaced by <i>lines</i> lines.
+	 * Only the lines around the edit which are not separated from it
+	 * by a line without borders are parsed, and the other tables are
+	 * reused, moved by the number of the inserted lines.
+	 * 
+	 * @param tables the tables which parseAllTables(String) returned,
+	 *        or null to parse the whole text
+	 * @param s the text after the edit
+	 * @param from the first line of the edit
+	 * @param to the line after the edit before the edit
+	 * @param lines the number of the lines of the edit
+	 * @return the tables in the order of their top left corners
+	 */
+	public List<TableRegion> reparseAllTables(List<TableRegion> tables,
+			String s, int from, int to, int lines) {
+		List<TableRegion> r = new ArrayList<TableRegion>();
+		int lo, hi, d = lines - (to - from);
+		String[] a;
+		TextArt t;
+
+		if(from < 0 || to < from || lines < 0) {
+			throw new IllegalArgumentException();
+		} else if(tables == null) {
+			return parseAllTables(s);
+		}
+
+		a = s.split("\n");
+		lo = Math.min(from, a.length);
+		hi = Math.min(from + lines, a.length);
+		while(lo > 0 && hasBorder(a[lo - 1]))  lo--;
+		while(hi < a.length && hasBorder(a[hi]))  hi++;
+
+		for(TableRegion x : tables) {
+			if(x.getBottom() < lo) {
+				r.add(x);
+			}
+		}
+
+		if(lo < hi) {
+			t = QuadroFactory.newTextArt(Arrays.asList(a).subList(lo, hi));
+			for(TableRegion x : scanTables(QuadroFactory.newInstance(
+					t, Scratch.NONE), listener, limit(), MAIN)) {
+				r.add(x.translate(lo));
+			}
+		}
+
+		for(TableRegion x : tables) {
+			if(x.getTop() >= hi - d) {
+				r.add(x.translate(d));
+			}
+		}
+		return r;
 	}
 
 	/**
@@ -151,16 +996,45 @@ public class TableParser {
 		return b.toTableModel();
 	}
 
+	//
+	static TableModel parseMySQLRows(
+			BufferedReader rd) throws IOException {
+		TableModelBuilder b;
+		DBRowReader r;
+		String[] a;
+
+		r = DBTextParser.getInstance().readDBRows(rd);
+		b = new SimpleTableModelBuilder();
+		a = r.getHeader();
+		for(int j = 1; j <= a.length; j++) {
+			b.appendCell(1, j, 1, 1, a[j - 1]);
+		}
+
+		// the header is the first row
+		while((a = r.readRow()) != null) {
+			for(int j = 1; j <= a.length; j++) {
+				b.appendCell(r.getRowNumber() + 1, j, 1, 1, a[j - 1]);
+			}
+		}
+		return b.toTableModel();
+	}
+
 	/**
+	 * parses the boxed output of mysql.
+	 * <p>The rows are read one line at a time by DBRowReader, so the
+	 * LBA is not used and the listener and the limits of this parser
+	 * do not apply.
 	 * 
 	 * @param s
 	 * @return
 	 */
 	public TableModel parseMySQLOutput(String s) {
-		Quadro<Scratch> q;
-
-		q = QuadroFactory.newInstance(s, Scratch.NONE);
-		return parseMySQLOutput(parseTable(q));
+		try {
+			return parseMySQLRows(
+					new BufferedReader(new StringReader(s)));
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	/**
@@ -168,13 +1042,10 @@ public class TableParser {
 	 * @param ins
 	 * @return
 	 * @throws IOException
+	 * @see #parseMySQLOutput(String)
 	 */
 	public TableModel parseMySQLOutput(Reader ins) throws IOException {
-		Quadro<Scratch> q;
-
-		q = QuadroFactory.newInstance(new BufferedReader(ins),
-				Scratch.NONE);
-		return parseMySQLOutput(parseTable(q));
+		return parseMySQLRows(new BufferedReader(ins));
 	}
 
 	/**
@@ -182,31 +1053,49 @@ public class TableParser {
 	 * @param ins
 	 * @return
 	 * @throws IOException
+	 * @see #parseMySQLOutput(String)
 	 */
 	public TableModel parseMySQLOutput(
 			InputStream ins) throws IOException {
-		Quadro<Scratch> q;
+		return parseMySQLRows(new BufferedReader(
+				new InputStreamReader(ins)));
+	}
 
-		q = QuadroFactory.newInstance(new BufferedReader(
-				new InputStreamReader(ins)), Scratch.NONE);
-		return parseMySQLOutput(parseTable(q));
+	/**
+	 * parses the boxed output of mysql into typed columns.
+	 * <p>Numbers which are aligned to the right are kept as
+	 * primitives, and the cells of NULL are nulls.
+	 * 
+	 * @param ins
+	 * @return the table whose header is row 1 as parseMySQLOutput
+	 *         gives
+	 * @throws IOException
+	 * @see DBRowReader#readColumns(int, String)
+	 */
+	public ColumnarTableModel parseMySQLColumns(
+			Reader ins) throws IOException {
+		return DBTextParser.getInstance().readDBRows(ins).readColumns(
+				1, "NULL");
 	}
 
 	/**
+	 * parses the output of mysql in the given file encoded in UTF-8.
 	 * 
 	 * @param f
 	 * @return
 	 * @throws IOException
+	 * @see #parseMySQLOutput(String)
 	 */
 	public TableModel parseMySQLOutput(File f) throws IOException {
-		InputStream ins = null;
+		BufferedReader rd = null;
 
 		try {
-			ins = new FileInputStream(f);
-			return parseMySQLOutput(ins);
+			rd = new BufferedReader(new InputStreamReader(
+					new FileInputStream(f), "UTF-8"));
+			return parseMySQLRows(rd);
 		} finally {
-			if(ins != null) {
-				ins.close();
+			if(rd != null) {
+				rd.close();
 			}
 		}
 	}
@@ -18,11 +18,12 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
 public class TraverseFrameTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
@@ -56,6 +57,21 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case TFRAME_INIT:
+		case TFRAME_FORWARD:
+		case TWALL_END:
+			return null;
+		default:
+			return TraverseWallTransition.INSTANCE;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
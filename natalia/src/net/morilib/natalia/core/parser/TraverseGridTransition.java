@@ -18,6 +18,7 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -25,7 +26,7 @@ import net.morilib.natalia.lba2d.Transition;
  *
  */
 public class TraverseGridTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
@@ -78,6 +79,22 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case TGRID_INIT:
+		case TGRID_FORWARD:
+		case TGRID_BACK:
+		case EXTRACT_TEXT_END:
+			return null;
+		default:
+			return ExtractTextTransition.INSTANCE;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
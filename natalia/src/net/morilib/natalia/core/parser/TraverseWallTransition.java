@@ -18,6 +18,7 @@ package net.morilib.natalia.core.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -25,7 +26,7 @@ import net.morilib.natalia.lba2d.Transition;
  * 
  */
 public class TraverseWallTransition
-implements Transition<Scratch, ParserState> {
+implements CompositeTransition<Scratch, ParserState> {
 
 	//
 	static final Transition<Scratch, ParserState> INSTANCE =
@@ -67,7 +68,8 @@ implements Transition<Scratch, ParserState> {
 				q.mark(null).turnRight();
 				return ParserState.TWALL_END;
 			} else {
-				q.forward();
+				// the mark is on a junction
+				q.forward().forwardToJunction();
 			}
 			return state;
 		default:
@@ -75,6 +77,22 @@ implements Transition<Scratch, ParserState> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, ParserState> getDelegate(ParserState state) {
+		switch(state) {
+		case TWALL_INIT:
+		case TWALL_FORWARD:
+		case DRAW_BORDER_END:
+		case TWALL_BACK:
+			return null;
+		default:
+			return DrawBorderTransition.INSTANCE;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
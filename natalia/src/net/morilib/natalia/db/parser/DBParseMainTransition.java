@@ -18,20 +18,30 @@ package net.morilib.natalia.db.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
+import net.morilib.natalia.lba2d.TransitionRoutes;
 
 /**
  *
  * @author Yuichiro MORIGUCHI
  */
 public class DBParseMainTransition
-implements Transition<Scratch, PS> {
+implements CompositeTransition<Scratch, PS> {
 
 	//
 	static final Transition<Scratch, PS> I =
 			new DBParseMainTransition();
 
+	//
+	@SuppressWarnings("unchecked")
+	private static final TransitionRoutes<Scratch, PS> ROUTES =
+			new TransitionRoutes<Scratch, PS>(PS.class,
+					SearchHorizontalAxisTransition.I,
+					TraverseHorizontalAxisTransition.I,
+					ExtractTableTransition.I);
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.db.parser.Transition#transit(net.morilib.natalia.core.parser.Quadro, net.morilib.natalia.db.parser.PS)
 	 */
@@ -47,20 +57,23 @@ implements Transition<Scratch, PS> {
 		case EXT_TABLE_END:
 			return PS.POSTGRES_MAIN_END;
 		default:
-			if(SearchHorizontalAxisTransition.I.getStates().contains(
-					state)) {
-				return SearchHorizontalAxisTransition.I.transit(q,
-						state);
-			} else if(TraverseHorizontalAxisTransition.I.getStates()
-					.contains(state)) {
-				return TraverseHorizontalAxisTransition.I.transit(q,
-						state);
-			} else if(ExtractTableTransition.I.getStates().contains(
-					state)) {
-				return ExtractTableTransition.I.transit(q, state);
-			} else {
-				throw new IllegalStateException();
-			}
+			return ROUTES.transit(q, state);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, PS> getDelegate(PS state) {
+		switch(state) {
+		case POSTGRES_MAIN_INIT:
+		case SEARCH_AXIS_END:
+		case T_AXIS_END:
+		case EXT_TABLE_END:
+			return null;
+		default:
+			return ROUTES.get(state);
 		}
 	}
 
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.db.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+import net.morilib.natalia.core.ColumnarTableModel;
+import net.morilib.natalia.core.ColumnarTableModelBuilder;
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.lba2d.QuadroFactory;
+
+/**
+ * Reads the rows of a table which a database client printed one
+ * line at a time.
+ * <p>The header and the horizontal axis under it are read first,
+ * and the columns are taken from the junctions of the axis.  Each
+ * following line which has walls just at the columns is a row, so
+ * only one line is kept at a time however many rows the table has.
+ * The rows are numbered from 1 and the header is row 0 as
+ * DBTextParser numbers them.
+ * <p>Both the output of psql, whose axis begins with '-', and the
+ * boxed output of mysql, whose header is put between two lines
+ * beginning with '+', are read.
+ */
+public class DBRowReader implements Closeable {
+
+	//
+	private BufferedReader reader;
+	private String[] header;
+	private int[] walls;
+	private boolean[] left;
+	private int row;
+	private boolean boxed, ended;
+
+	//
+	DBRowReader(BufferedReader rd) throws IOException {
+		String s, p = null, o = null;
+
+		reader = rd;
+		while((s = rd.readLine()) != null) {
+			if(p != null && isAxis(s, '-')) {
+				walls = junctions(s);
+				if((header = split(p)) == null) {
+					throw new ParserException("broken header");
+				}
+				return;
+			} else if(o != null && isAxis(o, '+') && isAxis(s, '+') &&
+					p.trim().startsWith("|")) {
+				walls = junctions(s);
+				boxed = true;
+				if(walls.length < 2 || (header = split(p)) == null) {
+					throw new ParserException("broken header");
+				}
+				return;
+			}
+			o = p;
+			p = s;
+		}
+		throw new ParserException("no horizontal axis");
+	}
+
+	//
+	private static boolean isAxis(String s, char first) {
+		int l = s.length(), b = 0;
+
+		while(l > 0 && Character.isWhitespace(s.charAt(l - 1)))  l--;
+		while(b < l && Character.isWhitespace(s.charAt(b)))  b++;
+		if(l - b < 2 || s.charAt(b) != first) {
+			return false;
+		}
+
+		for(int i = b; i < l; i++) {
+			if(s.charAt(i) != '-' && s.charAt(i) != '+') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//
+	private static int[] junctions(String s) {
+		int[] r;
+		int n = 0;
+
+		for(int i = 0; i < s.length(); i++) {
+			if(s.charAt(i) == '+')  n++;
+		}
+
+		r = new int[n];
+		n = 0;
+		for(int i = 0; i < s.length(); i++) {
+			if(s.charAt(i) == '+')  r[n++] = i;
+		}
+		return r;
+	}
+
+	// cuts the line at the walls, or gives null if a wall is missing
+	private String[] split(String s) {
+		String[] r;
+		int k = 0, b = 0, x = 0;
+
+		// the box has no cells outside of the walls
+		r = new String[boxed ? walls.length - 1 : walls.length + 1];
+		if(left == null || left.length != r.length) {
+			left = new boolean[r.length];
+		}
+		for(int i = 0; i < s.length() && k < walls.length; i++) {
+			if(x == walls[k]) {
+				if(s.charAt(i) != '|') {
+					return null;
+				} else if(!boxed) {
+					r[k] = cut(s, b, i, k);
+				} else if(k > 0) {
+					r[k - 1] = cut(s, b, i, k - 1);
+				}
+				k++;
+				b = i + 1;
+			} else if(x > walls[k]) {
+				return null;
+			}
+			x += QuadroFactory.width(s.charAt(i));
+		}
+
+		if(k < walls.length) {
+			return null;
+		} else if(!boxed) {
+			r[k] = cut(s, b, s.length(), k);
+			left[k] = false;
+		}
+		return r;
+	}
+
+	// the texts are followed by the padding if aligned to the left
+	private String cut(String s, int b, int e, int k) {
+		int p = e;
+
+		while(p > b && s.charAt(p - 1) == ' ')  p--;
+		left[k] = e - p > 1;
+		return s.substring(b, e).trim();
+	}
+
+	/**
+	 * gets the number of the columns.
+	 * 
+	 * @return
+	 */
+	public int columnSize() {
+		return header.length;
+	}
+
+	/**
+	 * gets the texts of the header.
+	 * 
+	 * @return
+	 */
+	public String[] getHeader() {
+		return header.clone();
+	}
+
+	/**
+	 * gets the number of the last row which is read.
+	 * 
+	 * @return the number of the row, or 0 if no rows are read
+	 */
+	public int getRowNumber() {
+		return row;
+	}
+
+	/**
+	 * reads the next row.
+	 * The table ends at the first line which is not a row, such as
+	 * a blank line, the count of the rows or the bottom of the box.
+	 * 
+	 * @return the texts of the cells, or null at the end of the table
+	 * @throws IOException
+	 */
+	public String[] readRow() throws IOException {
+		String[] r;
+		String s;
+
+		if(ended || (s = reader.readLine()) == null) {
+			ended = true;
+			return null;
+		} else if(walls.length == 0 && (s.trim().length() == 0 ||
+				s.trim().matches("\\([0-9]+ rows?\\)"))) {
+			// a table of one column has no walls to check
+			ended = true;
+			return null;
+		} else if((r = split(s)) == null) {
+			ended = true;
+			return null;
+		} else {
+			row++;
+			return r;
+		}
+	}
+
+	/**
+	 * tells whether the cell of the last row is aligned to the left,
+	 * as psql and mysql align texts but not numbers.
+	 * The cell at the end of a line of psql is never known to be.
+	 * 
+	 * @param col the column counted from 1
+	 * @return
+	 */
+	public boolean isLeftAligned(int col) {
+		return left[col - 1];
+	}
+
+	/**
+	 * reads the rest of the rows into columns whose types are
+	 * guessed from the cells.
+	 * 
+	 * @param headerRow the row of the header
+	 * @param nullText the text of nulls
+	 * @return
+	 * @throws IOException
+	 * @see ColumnarTableModelBuilder
+	 */
+	public ColumnarTableModel readColumns(int headerRow,
+			String nullText) throws IOException {
+		ColumnarTableModelBuilder b;
+		String[] a;
+
+		b = new ColumnarTableModelBuilder(headerRow, nullText);
+		for(int j = 1; j <= header.length; j++) {
+			b.appendCell(headerRow, j, 1, 1, header[j - 1]);
+		}
+
+		while((a = readRow()) != null) {
+			for(int j = 1; j <= a.length; j++) {
+				b.appendCell(headerRow + row, j, a[j - 1],
+						!left[j - 1]);
+			}
+		}
+		return b.toTableModel();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
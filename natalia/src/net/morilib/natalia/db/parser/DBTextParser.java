@@ -17,15 +17,21 @@ package net.morilib.natalia.db.parser;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 
+import net.morilib.natalia.core.ColumnarTableModel;
+import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
 import net.morilib.natalia.core.SimpleTableModelBuilder;
+import net.morilib.natalia.core.TableCell;
 import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.lba2d.CompiledTransition;
+import net.morilib.natalia.lba2d.ParseLimit;
+import net.morilib.natalia.lba2d.ParseListener;
+import net.morilib.natalia.lba2d.ParseOptions;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.QuadroFactory;
 import net.morilib.natalia.lba2d.Transition;
@@ -39,6 +45,38 @@ public class DBTextParser {
 	private static final int INFINITE_LOOP = 720000;
 	private static final DBTextParser INS = new DBTextParser();
 
+	//
+	private static final Transition<Scratch, PS> MAIN =
+			CompiledTransition.compile(DBParseMainTransition.I,
+					PS.class);
+
+	//
+	private ParseListener<Scratch, PS> listener;
+	private ParseOptions options;
+
+	/**
+	 * 
+	 */
+	public DBTextParser() {}
+
+	/**
+	 * 
+	 * @param l a listener of parses, or null
+	 */
+	public DBTextParser(ParseListener<Scratch, PS> l) {
+		listener = l;
+	}
+
+	/**
+	 * 
+	 * @param l a listener of parses, or null
+	 * @param o the limits of parses, or null
+	 */
+	public DBTextParser(ParseListener<Scratch, PS> l, ParseOptions o) {
+		listener = l;
+		options = o;
+	}
+
 	/**
 	 * 
 	 * @return
@@ -47,6 +85,16 @@ public class DBTextParser {
 		return INS;
 	}
 
+	//
+	private ParseLimit limit() {
+		return limit(options);
+	}
+
+	//
+	private static ParseLimit limit(ParseOptions o) {
+		return o == null ? null : o.start();
+	}
+
 	//
 	static void go(PS init, PS end, Transition<Scratch, PS> t,
 			Quadro<Scratch> q) {
@@ -63,12 +111,72 @@ public class DBTextParser {
 		}
 	}
 
+	//
+	static void go(PS init, PS end,
+			Transition<Scratch, PS> t, Quadro<Scratch> q,
+			ParseListener<Scratch, PS> l, ParseLimit b) {
+		PS s = init, p = null, f = init;
+		long n;
+		int c = 0;
+
+		if(l == null && b == null) {
+			go(init, end, t, q);
+			return;
+		} else if(l != null) {
+			l.parseStarted(q, init);
+		}
+
+		try {
+			for(; !s.equals(end); p = s) {
+				f = s;
+				if(l == null) {
+					s = t.transit(q, f);
+				} else {
+					n = System.nanoTime();
+					s = t.transit(q, f);
+					l.transited(q, f, s,
+							CompiledTransition.handlerOf(t, f),
+							System.nanoTime() - n);
+				}
+
+				if(b != null) {
+					b.step(q, s);
+				}
+
+				if(!s.equals(p)) {
+					c = 0;
+				} else if(c++ > INFINITE_LOOP) {
+					throw new IllegalStateException(
+							"maybe infinite loop");
+				}
+			}
+		} catch(RuntimeException e) {
+			if(l != null) {
+				l.parseFailed(q, f, e);
+			}
+			throw e;
+		}
+	}
+
 	//
 	static TableModel parseDBText(Quadro<Scratch> q) {
-		q.setTableModelBuilder(new SimpleTableModelBuilder());
+		return parseDBText(q, null, null);
+	}
+
+	//
+	static TableModel parseDBText(Quadro<Scratch> q,
+			ParseListener<Scratch, PS> l, ParseLimit b) {
+		TableModel m;
+
+		q.setTableModelBuilder(b != null ?
+				b.newTableModelBuilder() : new SimpleTableModelBuilder());
 		go(PS.POSTGRES_MAIN_INIT, PS.POSTGRES_MAIN_END,
-				DBParseMainTransition.I, q);
-		return q.getTableModelBuilder().toTableModel();
+				MAIN, q, l, b);
+		m = q.getTableModelBuilder().toTableModel();
+		if(l != null) {
+			l.tableParsed(m);
+		}
+		return m;
 	}
 
 	/**
@@ -77,10 +185,22 @@ public class DBTextParser {
 	 * @return
 	 */
 	public TableModel parseDBText(String s) {
+		return parseDBText(s, options);
+	}
+
+	/**
+	 * parses the text by the given limits instead of the limits of
+	 * this parser.
+	 * 
+	 * @param s
+	 * @param o the limits of this parse, or null
+	 * @return
+	 */
+	public TableModel parseDBText(String s, ParseOptions o) {
 		Quadro<Scratch> q;
 
 		q = QuadroFactory.newInstance(s, Scratch.NONE);
-		return parseDBText(q);
+		return parseDBText(q, listener, limit(o));
 	}
 
 	/**
@@ -90,11 +210,25 @@ public class DBTextParser {
 	 * @throws IOException
 	 */
 	public TableModel parseDBText(Reader ins) throws IOException {
+		return parseDBText(ins, options);
+	}
+
+	/**
+	 * parses the text by the given limits instead of the limits of
+	 * this parser.
+	 * 
+	 * @param ins
+	 * @param o the limits of this parse, or null
+	 * @return
+	 * @throws IOException
+	 */
+	public TableModel parseDBText(Reader ins,
+			ParseOptions o) throws IOException {
 		Quadro<Scratch> q;
 
 		q = QuadroFactory.newInstance(new BufferedReader(ins),
 				Scratch.NONE);
-		return parseDBText(q);
+		return parseDBText(q, listener, limit(o));
 	}
 
 	/**
@@ -108,26 +242,74 @@ public class DBTextParser {
 
 		q = QuadroFactory.newInstance(new BufferedReader(
 				new InputStreamReader(ins)), Scratch.NONE);
-		return parseDBText(q);
+		return parseDBText(q, listener, limit());
 	}
 
 	/**
+	 * parses the output in the given file.
+	 * The texts of the cells are read before this returns, so the
+	 * table does not refer to the file.
 	 * 
 	 * @param f
 	 * @return
 	 * @throws IOException
 	 */
 	public TableModel parseDBText(File f) throws IOException {
-		InputStream ins = null;
+		Quadro<Scratch> q;
+		TableModel m;
 
-		try {
-			ins = new FileInputStream(f);
-			return parseDBText(ins);
-		} finally {
-			if(ins != null) {
-				ins.close();
-			}
+		q = QuadroFactory.newInstance(f, Scratch.NONE);
+		m = parseDBText(q, listener, limit());
+		for(TableCell c : m) {
+			c.getCell();
 		}
+		return m;
+	}
+
+	/**
+	 * reads the rows of the output of psql or mysql one line at
+	 * a time.
+	 * <p>The header and the axis are read before this returns.
+	 * The LBA is not used, so the listener and the limits of this
+	 * parser do not apply.
+	 * 
+	 * @param ins
+	 * @return a reader of the rows
+	 * @throws IOException
+	 * @throws ParserException if no axis is found
+	 * @see DBRowReader
+	 */
+	public DBRowReader readDBRows(Reader ins) throws IOException {
+		return new DBRowReader(new BufferedReader(ins));
+	}
+
+	/**
+	 * reads the rows of the output of psql or mysql one line at
+	 * a time.
+	 * 
+	 * @param ins
+	 * @return a reader of the rows
+	 * @throws IOException
+	 * @see #readDBRows(Reader)
+	 */
+	public DBRowReader readDBRows(InputStream ins) throws IOException {
+		return readDBRows(new InputStreamReader(ins));
+	}
+
+	/**
+	 * parses the output of psql into typed columns.
+	 * <p>Numbers which are aligned to the right are kept as
+	 * primitives, and empty cells are nulls.  The rows are read as
+	 * readDBRows(Reader) reads them, so the LBA is not used.
+	 * 
+	 * @param ins
+	 * @return the table whose header is row 0
+	 * @throws IOException
+	 * @see DBRowReader#readColumns(int, String)
+	 */
+	public ColumnarTableModel parseDBColumns(
+			Reader ins) throws IOException {
+		return readDBRows(ins).readColumns(0, "");
 	}
 
 }
@@ -19,6 +19,7 @@ import java.util.EnumSet;
 
 import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -27,7 +28,7 @@ import net.morilib.natalia.lba2d.Transition;
  * @author Yuichiro MORIGUCHI
  */
 public class DrawLatitudinalBorderTransition
-implements Transition<Scratch, PS> {
+implements CompositeTransition<Scratch, PS> {
 
 	//
 	static final Transition<Scratch, PS> I =
@@ -101,6 +102,25 @@ implements Transition<Scratch, PS> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, PS> getDelegate(PS state) {
+		switch(state) {
+		case DRAW_LAT_INIT:
+		case DRAW_LAT_UP1:
+		case DRAW_LAT_DOWN1:
+		case DRAW_LAT_DOWN2:
+		case DRAW_LAT_DOWN3:
+		case DRAW_LONG_FRAME_END:
+		case DRAW_LAT_UP:
+			return null;
+		default:
+			return DrawLongitudinalFrameTransition.I;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.db.parser.Transition#getStates()
 	 */
@@ -18,7 +18,9 @@ package net.morilib.natalia.db.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.core.TableModelBuilders;
 import net.morilib.natalia.lba2d.Quadro;
+import net.morilib.natalia.lba2d.TextSpans;
 import net.morilib.natalia.lba2d.Transition;
 
 /**
@@ -52,17 +54,19 @@ implements Transition<Scratch, PS> {
 			return state;
 		case EXT_HEADER_SCAN:
 			if(q.getScratch().isVerticalFrame()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						0, q.getColumnRegister(), 1, 1,
-						q.getTextRegister().trim());
+						TextSpans.trim(q.getTextRegisterSequence()));
 				q.clearTextRegister();
 				q.setColumnRegister(1);
 				q.moveWest().moveSouth();
 				return PS.EXT_HEADER_SCAN_R;
 			} else if(q.getScratch().isLatitudinalBorder()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						0, q.getColumnRegister(), 1, 1,
-						q.getTextRegister().trim());
+						TextSpans.trim(q.getTextRegisterSequence()));
 				q.clearTextRegister();
 				q.setColumnRegister(q.getColumnRegister() + 1);
 				q.moveEast();
@@ -87,23 +91,26 @@ implements Transition<Scratch, PS> {
 			}
 		case EXT_TABLE_SCAN:
 			if(q.getScratch().isFrameCorner()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						q.getRowRegister(), q.getColumnRegister(),
-						1, 1, q.getTextRegister().trim());
+						1, 1, TextSpans.trim(q.getTextRegisterSequence()));
 				return PS.EXT_TABLE_END;
 			} else if(q.getScratch().isVerticalFrame()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						q.getRowRegister(), q.getColumnRegister(),
-						1, 1, q.getTextRegister().trim());
+						1, 1, TextSpans.trim(q.getTextRegisterSequence()));
 				q.clearTextRegister();
 				q.setRowRegister(q.getRowRegister() + 1);
 				q.setColumnRegister(1);
 				q.moveWest();
 				return PS.EXT_TABLE_SCAN_R;
 			} else if(q.getScratch().isLatitudinalBorder()) {
-				q.getTableModelBuilder().appendCell(
+				TableModelBuilders.appendCell(
+						q.getTableModelBuilder(),
 						q.getRowRegister(), q.getColumnRegister(),
-						1, 1, q.getTextRegister().trim());
+						1, 1, TextSpans.trim(q.getTextRegisterSequence()));
 				q.clearTextRegister();
 				q.setColumnRegister(q.getColumnRegister() + 1);
 				q.moveEast();
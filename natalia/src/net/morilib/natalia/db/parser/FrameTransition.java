@@ -19,11 +19,12 @@ import java.util.EnumSet;
 
 import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
 public class FrameTransition
-implements Transition<Scratch, PS> {
+implements CompositeTransition<Scratch, PS> {
 
 	//
 	static final Transition<Scratch, PS> I = new FrameTransition();
@@ -52,6 +53,21 @@ implements Transition<Scratch, PS> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, PS> getDelegate(PS state) {
+		switch(state) {
+		case FRAME_LINE_INIT:
+		case FRAME_LINE_WALL:
+		case FRAME_LINE_JUNCTION:
+			return FrameLineTransition.I;
+		default:
+			return null;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Transition#getStates()
 	 */
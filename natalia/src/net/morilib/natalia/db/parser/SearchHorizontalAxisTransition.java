@@ -18,6 +18,7 @@ package net.morilib.natalia.db.parser;
 import java.util.EnumSet;
 
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -26,7 +27,7 @@ import net.morilib.natalia.lba2d.Transition;
  * @author Yuichiro MORIGUCHI
  */
 public class SearchHorizontalAxisTransition
-implements Transition<Scratch, PS> {
+implements CompositeTransition<Scratch, PS> {
 
 	static final Transition<Scratch, PS> I =
 			new SearchHorizontalAxisTransition();
@@ -103,6 +104,25 @@ implements Transition<Scratch, PS> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, PS> getDelegate(PS state) {
+		switch(state) {
+		case SEARCH_AXIS_INIT:
+		case SEARCH_AXIS_R0:
+		case SEARCH_AXIS_FIND1:
+		case SEARCH_AXIS_FIND2:
+		case FRAME_END:
+		case SEARCH_AXIS_WALL:
+		case SEARCH_AXIS_R:
+			return null;
+		default:
+			return FrameTransition.I;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.core.parser.Transition#getStates()
 	 */
@@ -19,6 +19,7 @@ import java.util.EnumSet;
 
 import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.CompositeTransition;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.Transition;
 
@@ -27,7 +28,7 @@ import net.morilib.natalia.lba2d.Transition;
  * @author Yuichiro MORIGUCHI
  */
 public class TraverseHorizontalAxisTransition
-implements Transition<Scratch, PS> {
+implements CompositeTransition<Scratch, PS> {
 
 	//
 	static final Transition<Scratch, PS> I =
@@ -135,6 +136,27 @@ implements Transition<Scratch, PS> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.CompositeTransition#getDelegate(java.lang.Object)
+	 */
+	@Override
+	public Transition<Scratch, PS> getDelegate(PS state) {
+		switch(state) {
+		case T_AXIS_INIT:
+		case DRAW_LAT_END:
+		case T_AXIS_EAST_FRAME:
+		case T_AXIS_EAST_FRAME2:
+		case T_AXIS_EAST_FRAME3:
+		case T_AXIS_WEST:
+		case T_AXIS_WEST_FRAME:
+		case T_AXIS_WEST_FRAME2:
+		case T_AXIS_WEST_FRAME3:
+			return null;
+		default:
+			return DrawLatitudinalBorderTransition.I;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.core.parser.Transition#getStates()
 	 */
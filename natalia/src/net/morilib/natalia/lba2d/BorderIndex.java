@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Arrays;
+
+/**
+ * Bitsets of the walls and the junctions of a TextArt by rows and
+ * by columns, built in one scan of the text.
+ * <p>An index is not changed after it is built, except that the
+ * index of a recycled text is built again in the same bitsets.
+ */
+final class BorderIndex {
+
+	//
+	private static final int N = 0;
+	private static final int E = 1;
+	private static final int S = 2;
+	private static final int W = 3;
+
+	//
+	private int rows, columns, rowWords, columnWords;
+	private long[] rowWalls, rowJunctions;
+	private long[] columnWalls, columnJunctions;
+
+	//
+	BorderIndex(TextArt t) {
+		build(t);
+	}
+
+	//
+	private static long[] clear(long[] b, int n) {
+		if(b == null || b.length < n) {
+			return new long[n];
+		}
+		Arrays.fill(b, 0, n, 0L);
+		return b;
+	}
+
+	/**
+	 * builds the index of the given TextArt, reusing the bitsets.
+	 * 
+	 * @param t
+	 */
+	void build(TextArt t) {
+		CompactTextArt a;
+		boolean w, j;
+		byte k;
+
+		rows = t.getRows();
+		columns = t.getColumns();
+		rowWords = (columns + 63) >>> 6;
+		columnWords = (rows + 63) >>> 6;
+		rowWalls = clear(rowWalls, rows * rowWords);
+		rowJunctions = clear(rowJunctions, rows * rowWords);
+		columnWalls = clear(columnWalls, columns * columnWords);
+		columnJunctions = clear(columnJunctions, columns * columnWords);
+
+		a = t instanceof CompactTextArt ? (CompactTextArt)t : null;
+		for(int r = 0; r < rows; r++) {
+			for(int c = 0; c < columns; c++) {
+				if(a != null) {
+					k = a.getKind(r, c);
+					w = k == Pixel._WALL;
+					j = k == Pixel._JUNCTION;
+				} else {
+					w = t.get(r, c).isWall();
+					j = t.get(r, c).isJunction();
+				}
+
+				if(w) {
+					set(rowWalls, r * rowWords, c);
+					set(columnWalls, c * columnWords, r);
+				} else if(j) {
+					set(rowJunctions, r * rowWords, c);
+					set(columnJunctions, c * columnWords, r);
+				}
+			}
+		}
+	}
+
+	//
+	private static void set(long[] b, int base, int i) {
+		b[base + (i >>> 6)] |= 1L << (i & 63);
+	}
+
+	// the first index in [from, to) whose bit is v, or to
+	private static int next(long[] b, int base, int from, int to,
+			boolean v) {
+		long w;
+		int r;
+
+		for(int i = from; i < to; i = (i & ~63) + 64) {
+			w = v ? b[base + (i >>> 6)] : ~b[base + (i >>> 6)];
+			if((w &= -1L << (i & 63)) != 0) {
+				r = (i & ~63) + Long.numberOfTrailingZeros(w);
+				return r < to ? r : to;
+			}
+		}
+		return to;
+	}
+
+	// the last index in (to, from] whose bit is v, or to
+	private static int previous(long[] b, int base, int from, int to,
+			boolean v) {
+		long w;
+		int r;
+
+		for(int i = from; i > to; i = (i & ~63) - 1) {
+			w = v ? b[base + (i >>> 6)] : ~b[base + (i >>> 6)];
+			if((w &= -1L >>> (63 - (i & 63))) != 0) {
+				r = (i & ~63) + 63 - Long.numberOfLeadingZeros(w);
+				return r > to ? r : to;
+			}
+		}
+		return to;
+	}
+
+	//
+	private int find(long[] rb, long[] cb, int row, int column,
+			int direction, boolean v) {
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			return direction == N || direction == S ? row : column;
+		}
+
+		switch(direction) {
+		case N:  return previous(cb, column * columnWords, row, -1, v);
+		case E:  return next(rb, row * rowWords, column, columns, v);
+		case S:  return next(cb, column * columnWords, row, rows, v);
+		case W:  return previous(rb, row * rowWords, column, -1, v);
+		default:  throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * gets the row or column of the first pixel which is not a wall
+	 * from the given position toward the given direction.
+	 * 
+	 * @param row
+	 * @param column
+	 * @param direction
+	 * @return a row if the direction is latitudinal, or a column
+	 */
+	int skipWalls(int row, int column, int direction) {
+		return find(rowWalls, columnWalls, row, column, direction,
+				false);
+	}
+
+	/**
+	 * gets the row or column of the first junction or bound from the
+	 * given position toward the given direction.
+	 * 
+	 * @param row
+	 * @param column
+	 * @param direction
+	 * @return a row if the direction is latitudinal, or a column
+	 */
+	int toJunction(int row, int column, int direction) {
+		return find(rowJunctions, columnJunctions, row, column,
+				direction, true);
+	}
+
+	/**
+	 * gets the index of the given TextArt.
+	 * 
+	 * @param t
+	 * @return
+	 */
+	static BorderIndex of(TextArt t) {
+		if(t instanceof CompactTextArt) {
+			return ((CompactTextArt)t).getBorderIndex();
+		} else {
+			return new BorderIndex(t);
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.List;
+
+/**
+ * A TextArt which keeps the text in a char plane and the class of
+ * each pixel in a byte plane computed when the text is loaded.
+ */
+public class CompactTextArt implements TextArt {
+
+	//
+	private char[] chars;
+	private byte[] kinds;
+	private int[] offsets;
+	private int rows, xmax;
+	private BorderIndex borders;
+	private boolean stale;
+
+	//
+	CompactTextArt(List<String> lines) {
+		this(lines.toArray(new String[0]));
+	}
+
+	//
+	CompactTextArt(String[] lines) {
+		int l = 0, w;
+
+		rows = lines.length;
+		offsets = new int[rows + 1];
+		xmax = 0;
+		for(int k = 0; k < rows; k++) {
+			offsets[k] = l;
+			w = QuadroFactory.len(lines[k], false);
+			xmax = xmax < w ? w : xmax;
+			l += w;
+		}
+		offsets[rows] = l;
+
+		chars = new char[l];
+		kinds = new byte[l];
+		for(int k = 0; k < rows; k++) {
+			expand(lines[k], chars, kinds, offsets[k]);
+		}
+	}
+
+	/**
+	 * loads the given text in place of the current one, reusing the
+	 * planes if they are large enough.
+	 * The text is split into rows as newTextArt(String) does.
+	 * 
+	 * @param s
+	 */
+	void load(CharSequence s) {
+		int end = s.length(), l = 0, w = 0;
+		int[] a;
+		char c;
+
+		rows = xmax = 0;
+		for(int i = 0; i < end; i++) {
+			if(s.charAt(i) == '\n') {
+				// trailing empty rows are dropped
+				while(end > 0 && s.charAt(end - 1) == '\n')  end--;
+				end = end == 0 ? -1 : end;
+				break;
+			}
+		}
+
+		// widths of the rows
+		for(int i = 0; i <= end; i++) {
+			if(i < end && (c = s.charAt(i)) != '\n') {
+				w += QuadroFactory.len(c, false);
+				continue;
+			} else if(rows + 1 >= offsets.length) {
+				a = new int[offsets.length * 2 + 2];
+				System.arraycopy(offsets, 0, a, 0, rows + 1);
+				offsets = a;
+			}
+			offsets[rows++] = l;
+			xmax = xmax < w ? w : xmax;
+			l += w;
+			w = 0;
+		}
+		offsets[rows] = l;
+
+		if(chars.length < l) {
+			chars = new char[l];
+			kinds = new byte[l];
+		}
+
+		for(int i = 0, j = 0, r = 0; r < rows; i = j + 1, r++) {
+			for(j = i; j < end && s.charAt(j) != '\n'; j++);
+			expand(s, i, j, chars, kinds, offsets[r]);
+		}
+		stale = borders != null;
+	}
+
+	//
+	static void expand(CharSequence s, char[] c, byte[] k, int off) {
+		expand(s, 0, s.length(), c, k, off);
+	}
+
+	//
+	static void expand(CharSequence s, int from, int to,
+			char[] c, byte[] k, int off) {
+		char x;
+		int m;
+
+		for(int i = off, j = from; j < to; i += m, j++) {
+			x = s.charAt(j);
+			m = QuadroFactory.len(x, false);
+			c[i] = x;
+			k[i] = Pixel.kindOf(x);
+			for(int z = i + 1; z < i + m; z++) {
+				c[z] = x;
+				k[z] = Pixel._EQ_TO_LEFT;
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param row
+	 * @param column
+	 * @return
+	 */
+	byte getKind(int row, int column) {
+		if(row >= rows || row < 0) {
+			return Pixel._BOUND;
+		} else if(column >= xmax || column < 0) {
+			return Pixel._BOUND;
+		} else if(column >= offsets[row + 1] - offsets[row]) {
+			return Pixel._CELL;
+		} else {
+			return kinds[offsets[row] + column];
+		}
+	}
+
+	//
+	synchronized BorderIndex getBorderIndex() {
+		if(borders == null) {
+			borders = new BorderIndex(this);
+		} else if(stale) {
+			borders.build(this);
+			stale = false;
+		}
+		return borders;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#get(int, int)
+	 */
+	@Override
+	public Pixel get(int row, int column) {
+		int i;
+
+		if(row > rows || row < -1) {
+			throw new IllegalStateException();
+		} else if(row == rows || row == -1) {
+			return Pixel.BOUND;
+		} else if(column > xmax || column < -1) {
+			throw new IllegalStateException();
+		} else if(column == xmax || column == -1) {
+			return Pixel.BOUND;
+		} else if((i = offsets[row] + column) >= offsets[row + 1]) {
+			return Pixel.SPACE;
+		} else if(kinds[i] == Pixel._EQ_TO_LEFT) {
+			return Pixel.EQ_TO_LEFT;
+		} else {
+			return Pixel.getPixel(chars[i]);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#getRows()
+	 */
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#getColumns()
+	 */
+	@Override
+	public int getColumns() {
+		return xmax;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Set;
+
+/**
+ * A transition whose tree of composite transitions is flattened
+ * into a table from states to the transitions which handle them.
+ * <p>The delegations are followed once per state when the table is
+ * built, and the table is routed by TransitionRoutes, so a step
+ * costs one array lookup and one call of the handling transition
+ * instead of a chain of delegations.
+ */
+public class CompiledTransition<S, P extends Enum<P>>
+implements Transition<S, P> {
+
+	//
+	private Transition<S, P> root;
+	private TransitionRoutes<S, P> handlers;
+
+	//
+	private CompiledTransition(Transition<S, P> root, Class<P> states) {
+		Transition<S, P> t, d;
+
+		this.root = root;
+		handlers = new TransitionRoutes<S, P>(states);
+		for(P p : states.getEnumConstants()) {
+			for(t = root; t instanceof CompositeTransition; t = d) {
+				if((d = ((CompositeTransition<S, P>)t).getDelegate(
+						p)) == null) {
+					break;
+				}
+			}
+			handlers.put(p, t);
+		}
+	}
+
+	/**
+	 * compiles the given transition.
+	 * A transition which is not composite is returned as it is.
+	 * 
+	 * @param root
+	 * @param states the class of states
+	 * @return
+	 */
+	public static<S, P extends Enum<P>> Transition<S, P> compile(
+			Transition<S, P> root, Class<P> states) {
+		if(root instanceof CompositeTransition) {
+			return new CompiledTransition<S, P>(root, states);
+		} else {
+			return root;
+		}
+	}
+
+	/**
+	 * gets the transition which handles the given state.
+	 * 
+	 * @param t a compiled transition or any other
+	 * @param state
+	 * @return
+	 */
+	public static<S, P extends Enum<P>> Transition<S, P> handlerOf(
+			Transition<S, P> t, P state) {
+		if(t instanceof CompiledTransition) {
+			return ((CompiledTransition<S, P>)t).handlers.get(state);
+		} else {
+			return t;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Transition#transit(net.morilib.natalia.lba2d.Quadro, java.lang.Object)
+	 */
+	@Override
+	public P transit(Quadro<S> q, P state) {
+		return handlers.transit(q, state);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Transition#getStates()
+	 */
+	@Override
+	public Set<P> getStates() {
+		return root.getStates();
+	}
+
+}
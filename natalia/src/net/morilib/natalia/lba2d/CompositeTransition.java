@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * A transition which hands some of its states over to
+ * sub-transitions.
+ */
+public interface CompositeTransition<S, P> extends Transition<S, P> {
+
+	/**
+	 * gets the sub-transition to which the given state is handed
+	 * over.
+	 * 
+	 * @param state
+	 * @return the sub-transition, or null if this handles the state
+	 */
+	public Transition<S, P> getDelegate(P state);
+
+}
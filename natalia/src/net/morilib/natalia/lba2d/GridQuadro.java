@@ -0,0 +1,998 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Arrays;
+
+import net.morilib.natalia.core.TableModelBuilder;
+
+/**
+ * A Quadro which keeps the scratches and the marks in planes
+ * indexed by the position of the head.
+ * <p>The planes are split into pages which are shared between a
+ * Quadro and its forks and copied only when one of them writes,
+ * so that fork() takes constant time.
+ */
+public class GridQuadro<S> implements Quadro<S> {
+
+	//
+	private static final int N = 0;
+	private static final int E = 1;
+	private static final int S = 2;
+	private static final int W = 3;
+
+	//
+	private static final int PAGE_BITS = 8;
+	private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+	//
+	private static class Page {
+
+		private Object owner;
+		private Object[] scratches;
+		private byte[] marks;
+
+		private Page(Object o) {
+			owner = o;
+			scratches = new Object[PAGE_MASK + 1];
+			marks = new byte[PAGE_MASK + 1];
+		}
+
+		private Page copy(Object o) {
+			Page p = new Page(o);
+
+			System.arraycopy(scratches, 0, p.scratches, 0,
+					scratches.length);
+			System.arraycopy(marks, 0, p.marks, 0, marks.length);
+			return p;
+		}
+
+	}
+
+	//
+	private static class Chunk {
+
+		private Object owner;
+		private Page[] pages;
+
+		private Chunk(Object o, Page[] p) {
+			owner = o;
+			pages = p;
+		}
+
+	}
+
+	//
+	private static class Directory {
+
+		private Object owner;
+		private Chunk[] chunks;
+
+		private Directory(Object o, Chunk[] c) {
+			owner = o;
+			chunks = c;
+		}
+
+	}
+
+	// pages and chunks which are handed out again after reset()
+	private static class Arena {
+
+		private Page[] pages = new Page[16];
+		private Chunk[] chunks = new Chunk[4];
+		private int pageCount, chunkCount;
+
+		private Page page(Object o, Page from) {
+			Page p;
+
+			if(pageCount >= pages.length) {
+				pages = Arrays.copyOf(pages, pages.length * 2);
+			}
+
+			if((p = pages[pageCount]) == null) {
+				p = pages[pageCount] = new Page(o);
+			} else if(from == null) {
+				Arrays.fill(p.scratches, null);
+				Arrays.fill(p.marks, (byte)0);
+			}
+			pageCount++;
+
+			p.owner = o;
+			if(from != null) {
+				System.arraycopy(from.scratches, 0, p.scratches, 0,
+						from.scratches.length);
+				System.arraycopy(from.marks, 0, p.marks, 0,
+						from.marks.length);
+			}
+			return p;
+		}
+
+		private Chunk chunk(Object o, Chunk from) {
+			Chunk c;
+
+			if(chunkCount >= chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			}
+
+			if((c = chunks[chunkCount]) == null) {
+				c = chunks[chunkCount] = new Chunk(o,
+						new Page[CHUNK_MASK + 1]);
+			}
+			chunkCount++;
+
+			c.owner = o;
+			if(from != null) {
+				System.arraycopy(from.pages, 0, c.pages, 0,
+						from.pages.length);
+			} else {
+				Arrays.fill(c.pages, null);
+			}
+			return c;
+		}
+
+	}
+
+	//
+	private int xptr, yptr, direction;
+	private long width;
+	private TextArt pixels;
+	private Object token;
+	private Directory directory;
+	private Object[] owners;
+	private int ownerCount;
+	private Object ownersToken;
+	private TextRegister register;
+	private Object registerToken;
+	private int rowRegister, columnRegister;
+	private int rowSpanRegister, columnSpanRegister;
+	private TableModelBuilder tableModelBuilder;
+	private S zero;
+	private long tapeDigest;
+	private BorderIndex borders;
+	private Arena arena;
+
+	//
+	private GridQuadro() {}
+
+	//
+	GridQuadro(TextArt p, S z) {
+		long l;
+
+		pixels = p;
+		xptr = yptr = 0;
+		width = p.getColumns() + 2;
+		l = width * (p.getRows() + 2);
+		token = new Object();
+		directory = new Directory(token,
+				new Chunk[(int)((l >>> (PAGE_BITS + CHUNK_BITS)) + 1)]);
+		owners = new Object[4];
+		ownersToken = token;
+		register = new TextRegister();
+		registerToken = token;
+		zero = z;
+	}
+
+	/**
+	 * reuses this Quadro for the given text.
+	 * The pages which this Quadro and its forks have written are
+	 * handed out again for later writes, so the forks of this must
+	 * not be used after reset.
+	 * 
+	 * @param p
+	 */
+	void reset(TextArt p) {
+		Chunk[] cs = directory.chunks;
+		int m;
+		long l;
+
+		if(arena == null) {
+			arena = new Arena();
+		}
+		arena.pageCount = arena.chunkCount = 0;
+
+		pixels = p;
+		xptr = yptr = direction = 0;
+		width = p.getColumns() + 2;
+		l = width * (p.getRows() + 2);
+		token = new Object();
+		m = (int)((l >>> (PAGE_BITS + CHUNK_BITS)) + 1);
+		if(directory.chunks.length < m) {
+			cs = new Chunk[m];
+		} else {
+			Arrays.fill(cs, null);
+		}
+		directory = new Directory(token, cs);
+
+		Arrays.fill(owners, null);
+		ownerCount = 0;
+		ownersToken = token;
+		register.clear();
+		registerToken = token;
+		rowRegister = columnRegister = 0;
+		rowSpanRegister = columnSpanRegister = 0;
+		tableModelBuilder = null;
+		tapeDigest = 0;
+		borders = null;
+	}
+
+	//
+	private long index() {
+		return (yptr + 1) * width + xptr + 1;
+	}
+
+	//
+	private Page page(long i) {
+		Chunk c;
+
+		c = directory.chunks[(int)(i >>> (PAGE_BITS + CHUNK_BITS))];
+		return c != null ?
+				c.pages[(int)(i >>> PAGE_BITS) & CHUNK_MASK] : null;
+	}
+
+	//
+	private Page writablePage(long i) {
+		int ci = (int)(i >>> (PAGE_BITS + CHUNK_BITS));
+		int pi = (int)(i >>> PAGE_BITS) & CHUNK_MASK;
+		Chunk c;
+		Page p;
+
+		if(directory.owner != token) {
+			directory = new Directory(token, directory.chunks.clone());
+		}
+
+		if((c = directory.chunks[ci]) == null) {
+			c = arena != null ? arena.chunk(token, null) :
+					new Chunk(token, new Page[CHUNK_MASK + 1]);
+			directory.chunks[ci] = c;
+		} else if(c.owner != token) {
+			c = arena != null ? arena.chunk(token, c) :
+					new Chunk(token, c.pages.clone());
+			directory.chunks[ci] = c;
+		}
+
+		if((p = c.pages[pi]) == null) {
+			p = arena != null ? arena.page(token, null) : new Page(token);
+			c.pages[pi] = p;
+		} else if(p.owner != token) {
+			p = arena != null ? arena.page(token, p) : p.copy(token);
+			c.pages[pi] = p;
+		}
+		return p;
+	}
+
+	//
+	private Object scratchAt(long i) {
+		Page p = page(i);
+
+		return p != null ? p.scratches[(int)i & PAGE_MASK] : null;
+	}
+
+	//
+	private int markAt(long i) {
+		Page p = page(i);
+
+		return p != null ? p.marks[(int)i & PAGE_MASK] : 0;
+	}
+
+	//
+	private int ownerId(Object o) {
+		for(int k = 0; k < ownerCount; k++) {
+			if(o.equals(owners[k])) {
+				return k + 1;
+			}
+		}
+		return 0;
+	}
+
+	//
+	private int addOwner(Object o) {
+		Object[] a;
+		int k;
+
+		if((k = ownerId(o)) > 0) {
+			return k;
+		} else if(ownerCount >= Byte.MAX_VALUE) {
+			throw new IllegalStateException("too many mark owners");
+		} else if(ownerCount >= owners.length || ownersToken != token) {
+			a = new Object[Math.max(owners.length,
+					(ownerCount + 1) * 2)];
+			System.arraycopy(owners, 0, a, 0, ownerCount);
+			owners = a;
+			ownersToken = token;
+		}
+		owners[ownerCount++] = o;
+		return ownerCount;
+	}
+
+	//
+	private long scratchDigest(Object o) {
+		return o == null || o.equals(zero) ?
+				0 : LBAs.cellDigest(yptr, xptr, 0, o);
+	}
+
+	//
+	private long markDigest(Object o) {
+		return LBAs.cellDigest(yptr, xptr, 1, o);
+	}
+
+	//
+	private TextRegister writableTextRegister() {
+		if(registerToken != token) {
+			register = register.copy();
+			registerToken = token;
+		}
+		return register;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#fork()
+	 */
+	@Override
+	public Quadro<S> fork() {
+		GridQuadro<S> q;
+
+		q = new GridQuadro<S>();
+		q.pixels = pixels;
+		q.xptr = xptr;
+		q.yptr = yptr;
+		q.direction = direction;
+		q.width = width;
+		q.token = new Object();
+		q.directory = directory;
+		q.owners = owners;
+		q.ownerCount = ownerCount;
+		q.ownersToken = ownersToken;
+		q.register = register;
+		q.registerToken = registerToken;
+		q.rowRegister = rowRegister;
+		q.columnRegister = columnRegister;
+		q.rowSpanRegister = rowSpanRegister;
+		q.columnSpanRegister = columnSpanRegister;
+		q.tableModelBuilder = tableModelBuilder;
+		q.zero = zero;
+		q.tapeDigest = tapeDigest;
+		q.borders = borders;
+		q.arena = arena;
+
+		// everything reachable now belongs to neither of them
+		token = new Object();
+		return q;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#get()
+	 */
+	@Override
+	public Pixel get() {
+		return pixels.get(yptr, xptr);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getScratch()
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public S getScratch() {
+		Object s;
+
+		s = scratchAt(index());
+		return s != null ? (S)s : zero;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setScratch(net.morilib.natalia.Scratch)
+	 */
+	@Override
+	public Quadro<S> setScratch(S x) {
+		long i = index();
+		Page p = writablePage(i);
+
+		tapeDigest ^= scratchDigest(p.scratches[(int)i & PAGE_MASK]) ^
+				scratchDigest(x);
+		p.scratches[(int)i & PAGE_MASK] = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#moveNorth()
+	 */
+	@Override
+	public Quadro<S> moveNorth() {
+		yptr = yptr < 0 ? -1 : yptr - 1;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#moveEast()
+	 */
+	@Override
+	public Quadro<S> moveEast() {
+		xptr = xptr < pixels.getColumns() ?
+				xptr + 1 : pixels.getColumns();
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#moveSouth()
+	 */
+	@Override
+	public Quadro<S> moveSouth() {
+		yptr = yptr < pixels.getRows() ? yptr + 1 : pixels.getRows();
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#moveWest()
+	 */
+	@Override
+	public Quadro<S> moveWest() {
+		xptr = xptr < 0 ? -1 : xptr - 1;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.core.parser.Quadro#crlf()
+	 */
+	@Override
+	public Quadro<S> crlf() {
+		xptr = 0;
+		return moveSouth();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#forward()
+	 */
+	@Override
+	public Quadro<S> forward() {
+		switch(direction) {
+		case N:   return moveNorth();
+		case E:   return moveEast();
+		case S:   return moveSouth();
+		case W:   return moveWest();
+		default:  throw new IllegalStateException(direction + "");
+		}
+	}
+
+	//
+	private BorderIndex borders() {
+		if(borders == null) {
+			borders = BorderIndex.of(pixels);
+		}
+		return borders;
+	}
+
+	//
+	private void moveAlong(int x) {
+		if(direction == N || direction == S) {
+			yptr = x;
+		} else {
+			xptr = x;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#skipWalls()
+	 */
+	@Override
+	public Quadro<S> skipWalls() {
+		moveAlong(borders().skipWalls(yptr, xptr, direction));
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#forwardToJunction()
+	 */
+	@Override
+	public Quadro<S> forwardToJunction() {
+		moveAlong(borders().toJunction(yptr, xptr, direction));
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnNorth()
+	 */
+	@Override
+	public Quadro<S> turnNorth() {
+		direction = N;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnEast()
+	 */
+	@Override
+	public Quadro<S> turnEast() {
+		direction = E;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnSouth()
+	 */
+	@Override
+	public Quadro<S> turnSouth() {
+		direction = S;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnWest()
+	 */
+	@Override
+	public Quadro<S> turnWest() {
+		direction = W;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnLeft()
+	 */
+	@Override
+	public Quadro<S> turnLeft() {
+		direction = (direction + 3) % 4;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#turnRight()
+	 */
+	@Override
+	public Quadro<S> turnRight() {
+		direction = (direction + 1) % 4;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#back()
+	 */
+	@Override
+	public Quadro<S> back() {
+		switch(direction) {
+		case S:   return moveNorth();
+		case W:   return moveEast();
+		case N:   return moveSouth();
+		case E:   return moveWest();
+		default:  throw new IllegalStateException();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionNorth()
+	 */
+	@Override
+	public boolean isDirectionNorth() {
+		return direction == N;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionEast()
+	 */
+	@Override
+	public boolean isDirectionEast() {
+		return direction == E;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionSouth()
+	 */
+	@Override
+	public boolean isDirectionSouth() {
+		return direction == S;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionWest()
+	 */
+	@Override
+	public boolean isDirectionWest() {
+		return direction == W;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionLatitudinal()
+	 */
+	@Override
+	public boolean isDirectionLatitudinal() {
+		return isDirectionNorth() || isDirectionSouth();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isDirectionLongitudinal()
+	 */
+	@Override
+	public boolean isDirectionLongitudinal() {
+		return isDirectionEast() || isDirectionWest();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#mark(java.lang.Object)
+	 */
+	@Override
+	public Quadro<S> mark(Object o) {
+		long i = index();
+		int k = markAt(i);
+
+		if(k != 0) {
+			tapeDigest ^= markDigest(owners[k - 1]);
+		}
+
+		if(o != null) {
+			writablePage(i).marks[(int)i & PAGE_MASK] =
+					(byte)addOwner(o);
+			tapeDigest ^= markDigest(o);
+		} else if(k != 0) {
+			writablePage(i).marks[(int)i & PAGE_MASK] = 0;
+		}
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#isMarked(java.lang.Object)
+	 */
+	@Override
+	public boolean isMarked(Object o) {
+		int k = markAt(index());
+
+		if(o != null) {
+			return k > 0 && o.equals(owners[k - 1]);
+		} else {
+			return k == 0;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#peekForward()
+	 */
+	@Override
+	public Pixel peekForward() {
+		Pixel p;
+
+		if(yptr > pixels.getRows() || yptr < -1) {
+			throw new IllegalStateException();
+		} else if(yptr == pixels.getRows() || yptr == -1) {
+			return Pixel.BOUND;
+		} else if(xptr > pixels.getColumns() || xptr < -1) {
+			throw new IllegalStateException();
+		} else if(xptr == pixels.getColumns() || xptr == -1) {
+			return Pixel.BOUND;
+		} else {
+			p = forward().get();
+			back();
+			return p;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#peekLeft()
+	 */
+	@Override
+	public Pixel peekLeft() {
+		Pixel p;
+
+		if(yptr > pixels.getRows() || yptr < -1) {
+			throw new IllegalStateException();
+		} else if(yptr == pixels.getRows() || yptr == -1) {
+			return Pixel.BOUND;
+		} else if(xptr > pixels.getColumns() || xptr < -1) {
+			throw new IllegalStateException();
+		} else if(xptr == pixels.getColumns() || xptr == -1) {
+			return Pixel.BOUND;
+		} else {
+			p = turnLeft().forward().get();
+			back().turnRight();
+			return p;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#peekRight()
+	 */
+	@Override
+	public Pixel peekRight() {
+		Pixel p;
+
+		if(yptr > pixels.getRows() || yptr < -1) {
+			throw new IllegalStateException();
+		} else if(yptr == pixels.getRows() || yptr == -1) {
+			return Pixel.BOUND;
+		} else if(xptr > pixels.getColumns() || xptr < -1) {
+			throw new IllegalStateException();
+		} else if(xptr == pixels.getColumns() || xptr == -1) {
+			return Pixel.BOUND;
+		} else {
+			p = turnRight().forward().get();
+			back().turnLeft();
+			return p;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#clearTextRegister()
+	 */
+	@Override
+	public Quadro<S> clearTextRegister() {
+		if(registerToken != token) {
+			register = new TextRegister();
+			registerToken = token;
+		} else {
+			register.clear();
+		}
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#appendTextRegister(int)
+	 */
+	@Override
+	public Quadro<S> appendTextRegister(int c) {
+		writableTextRegister().append(pixels, yptr, xptr, c);
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getTextRegister()
+	 */
+	@Override
+	public String getTextRegister() {
+		return register.toString(pixels);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#getTextRegisterSequence()
+	 */
+	@Override
+	public CharSequence getTextRegisterSequence() {
+		return register.toCharSequence(pixels);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getRowRegister()
+	 */
+	@Override
+	public int getRowRegister() {
+		return rowRegister;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setRowRegister(int)
+	 */
+	@Override
+	public Quadro<S> setRowRegister(int x) {
+		rowRegister = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getColumnRegister()
+	 */
+	@Override
+	public int getColumnRegister() {
+		return columnRegister;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setColumnRegister(int)
+	 */
+	@Override
+	public Quadro<S> setColumnRegister(int x) {
+		columnRegister = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getRowSpanRegister()
+	 */
+	@Override
+	public int getRowSpanRegister() {
+		return rowSpanRegister;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setRowSpanRegister(int)
+	 */
+	@Override
+	public Quadro<S> setRowSpanRegister(int x) {
+		rowSpanRegister = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getColumnSpanRegister()
+	 */
+	@Override
+	public int getColumnSpanRegister() {
+		return columnSpanRegister;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setColumnSpanRegister(int)
+	 */
+	@Override
+	public Quadro<S> setColumnSpanRegister(int x) {
+		columnSpanRegister = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getTableModelBuilder()
+	 */
+	@Override
+	public TableModelBuilder getTableModelBuilder() {
+		return tableModelBuilder;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#setTableModelBuilder(net.morilib.natalia.TableModelBuilder)
+	 */
+	@Override
+	public Quadro<S> setTableModelBuilder(TableModelBuilder x) {
+		tableModelBuilder = x;
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		Object s;
+
+		for(int j = 0; j < pixels.getRows(); j++) {
+			for(int i = 0; i < pixels.getColumns(); i++) {
+				if((s = scratchAt((j + 1) * width + i + 1)) != null) {
+					b.append(s.toString());
+				} else {
+					b.append(' ');
+				}
+			}
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getRowPosition()
+	 */
+	@Override
+	public int getRowPosition() {
+		return yptr;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getColumnPosition()
+	 */
+	@Override
+	public int getColumnPosition() {
+		return xptr;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.Quadro#getDirection()
+	 */
+	@Override
+	public String getDirection() {
+		switch(direction) {
+		case N:   return "North";
+		case E:   return "East";
+		case S:   return "South";
+		case W:   return "West";
+		default:  throw new IllegalStateException();
+		}
+	}
+
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#getConfigurationDigest()
+	 */
+	@Override
+	public long getConfigurationDigest() {
+		return LBAs.headDigest(yptr, xptr, direction,
+				rowRegister, columnRegister,
+				rowSpanRegister, columnSpanRegister,
+				register.textHash()) ^ tapeDigest;
+	}
+
+	//
+	private Object scratchOf(Page p, int i) {
+		Object o = p != null ? p.scratches[i] : null;
+
+		return o == null || o.equals(zero) ? null : o;
+	}
+
+	//
+	private Object markOf(Page p, int i) {
+		int k = p != null ? p.marks[i] : 0;
+
+		return k != 0 ? owners[k - 1] : null;
+	}
+
+	//
+	private static boolean equals(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	//
+	private boolean isSamePage(Page p, GridQuadro<S> q, Page r) {
+		if(p == r) {
+			// the pages are shared, so are the owners of the marks
+			return true;
+		}
+
+		for(int i = 0; i <= PAGE_MASK; i++) {
+			if(!equals(scratchOf(p, i), q.scratchOf(r, i)) ||
+					!equals(markOf(p, i), q.markOf(r, i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//
+	private boolean isSameTape(GridQuadro<S> q) {
+		Chunk[] a = directory.chunks, b = q.directory.chunks;
+		Chunk c, d;
+
+		if(a == b) {
+			return true;
+		}
+
+		for(int i = 0; i < a.length; i++) {
+			if((c = a[i]) == (d = b[i])) {
+				continue;
+			}
+
+			for(int j = 0; j <= CHUNK_MASK; j++) {
+				if(!isSamePage(c != null ? c.pages[j] : null, q,
+						d != null ? d.pages[j] : null)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#isSameConfiguration(net.morilib.natalia.lba2d.Quadro)
+	 */
+	@Override
+	public boolean isSameConfiguration(Quadro<S> q) {
+		GridQuadro<S> r;
+
+		if(!(q instanceof GridQuadro)) {
+			return false;
+		}
+
+		r = (GridQuadro<S>)q;
+		if(pixels != r.pixels ||
+				yptr != r.yptr || xptr != r.xptr ||
+				direction != r.direction ||
+				rowRegister != r.rowRegister ||
+				columnRegister != r.columnRegister ||
+				rowSpanRegister != r.rowSpanRegister ||
+				columnSpanRegister != r.columnSpanRegister ||
+				tapeDigest != r.tapeDigest) {
+			return false;
+		} else if(register != r.register &&
+				(register.textHash() != r.register.textHash() ||
+				!getTextRegister().equals(r.getTextRegister()))) {
+			return false;
+		}
+		return isSameTape(r);
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Searches the configurations of a nondeterministic LBA for an
+ * accepting one.
+ * <p>A configuration is identified by its state and its Quadro, and
+ * is explored at most once.  The configurations are looked up by
+ * the digests of the Quadros.  The search gives up when it has
+ * expanded more configurations than the step budget or remembers
+ * more configurations than the memory budget.
+ * An instance must not be shared between threads.
+ */
+public class LBASearch<S, P> {
+
+	//
+	private LBATransition<S, P> lba;
+	private SearchStrategy strategy = SearchStrategy.DEPTH_FIRST;
+	private Comparator<? super ID<S, P>> heuristic;
+	private long stepBudget = Long.MAX_VALUE;
+	private int memoryBudget = Integer.MAX_VALUE;
+	private SearchStatistics statistics;
+
+	//
+	private ArrayDeque<ID<S, P>> deque;
+	private PriorityQueue<ID<S, P>> queue;
+
+	/**
+	 * 
+	 * @param lba
+	 */
+	public LBASearch(LBATransition<S, P> lba) {
+		this.lba = lba;
+	}
+
+	/**
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public LBASearch<S, P> setStrategy(SearchStrategy s) {
+		if(s == null) {
+			throw new NullPointerException();
+		}
+		strategy = s;
+		return this;
+	}
+
+	/**
+	 * sets the order of configurations used by the best first
+	 * search.  The least one is explored first.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public LBASearch<S, P> setHeuristic(Comparator<? super ID<S, P>> c) {
+		heuristic = c;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @param n the maximum number of configurations to expand
+	 * @return
+	 */
+	public LBASearch<S, P> setStepBudget(long n) {
+		if(n < 0) {
+			throw new IllegalArgumentException();
+		}
+		stepBudget = n;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @param n the maximum number of configurations to remember
+	 * @return
+	 */
+	public LBASearch<S, P> setMemoryBudget(int n) {
+		if(n < 1) {
+			throw new IllegalArgumentException();
+		}
+		memoryBudget = n;
+		return this;
+	}
+
+	/**
+	 * gets the statistics of the last search.
+	 * 
+	 * @return
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	//
+	private void push(ID<S, P> d) {
+		if(queue != null) {
+			queue.add(d);
+		} else {
+			deque.addLast(d);
+		}
+	}
+
+	//
+	private ID<S, P> pop() {
+		switch(strategy) {
+		case DEPTH_FIRST:    return deque.pollLast();
+		case BREADTH_FIRST:  return deque.pollFirst();
+		case BEST_FIRST:     return queue.poll();
+		default:  throw new IllegalStateException();
+		}
+	}
+
+	//
+	private int size() {
+		return queue != null ? queue.size() : deque.size();
+	}
+
+	/**
+	 * 
+	 * @param quadro
+	 * @param state
+	 * @param accept
+	 * @return the accepting configuration, or null if not found
+	 */
+	public ID<S, P> search(Quadro<S> quadro, P state, P accept) {
+		SearchStatistics t = new SearchStatistics();
+		VisitedSet<S, P> v = new VisitedSet<S, P>();
+		ID<S, P> d;
+
+		statistics = t;
+		if(strategy != SearchStrategy.BEST_FIRST) {
+			deque = new ArrayDeque<ID<S, P>>();
+			queue = null;
+		} else if(heuristic == null) {
+			throw new IllegalStateException("no heuristic");
+		} else {
+			deque = null;
+			queue = new PriorityQueue<ID<S, P>>(16, heuristic);
+		}
+
+		try {
+			d = new ID<S, P>(quadro, state);
+			v.add(d);
+			push(d);
+			t.maxFrontier = 1;
+			while((d = pop()) != null) {
+				if(d.getState().equals(accept)) {
+					t.result = SearchStatistics.Result.ACCEPTED;
+					return d;
+				} else if(t.explored >= stepBudget) {
+					t.result = SearchStatistics.Result.STEP_BUDGET;
+					return null;
+				}
+
+				t.explored++;
+				for(ID<S, P> e : lba.transit(d)) {
+					t.generated++;
+					if(!v.add(e)) {
+						t.pruned++;
+					} else if(v.size() > memoryBudget) {
+						t.result = SearchStatistics.Result.MEMORY_BUDGET;
+						return null;
+					} else {
+						push(e);
+					}
+				}
+				t.maxFrontier = Math.max(t.maxFrontier, size());
+			}
+			t.result = SearchStatistics.Result.REJECTED;
+			return null;
+		} finally {
+			t.visited = v.size();
+			deque = null;
+			queue = null;
+		}
+	}
+
+}
@@ -15,9 +15,6 @@
  */
 package net.morilib.natalia.lba2d;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  *
  * @author Yuichiro MORIGUCHI
@@ -26,6 +23,39 @@ public final class LBAs {
 
 	private LBAs() {}
 
+	//
+	static long mix(long x) {
+		x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+		x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return x ^ (x >>> 33);
+	}
+
+	//
+	static long cellDigest(int row, int column, int plane, Object o) {
+		long x;
+
+		if(o == null) {
+			return 0;
+		}
+		x = ((long)row << 32) ^ (column & 0xffffffffL);
+		return mix(mix(x * 4 + plane) + o.hashCode());
+	}
+
+	//
+	static long headDigest(int row, int column, int direction,
+			int r, int c, int rs, int cs, int textHash) {
+		long x = 0;
+
+		x = mix(x + row);
+		x = mix(x + column);
+		x = mix(x + direction);
+		x = mix(x + r);
+		x = mix(x + c);
+		x = mix(x + rs);
+		x = mix(x + cs);
+		return mix(x + textHash);
+	}
+
 	/**
 	 * 
 	 * @param lba
@@ -36,19 +66,8 @@ public final class LBAs {
 	 */
 	public static<S, P> boolean transit(LBATransition<S, P> lba,
 			Quadro<S> quadro, P state, P accept) {
-		List<ID<S, P>> l;
-		ID<S, P> d;
-
-		l = new ArrayList<ID<S, P>>();
-		l.add(new ID<S, P>(quadro, state));
-		while(l.size() > 0) {
-			d = l.remove(l.size() - 1);
-			if(d.getState().equals(accept)) {
-				return true;
-			}
-			l.addAll(lba.transit(d));
-		}
-		return false;
+		return new LBASearch<S, P>(lba).search(quadro, state,
+				accept) != null;
 	}
 
 }
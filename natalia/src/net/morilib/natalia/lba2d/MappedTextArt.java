@@ -0,0 +1,238 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A TextArt which reads a file through memory mapping.
+ * <p>Only every 64th line offset is kept, and a line is decoded when
+ * the head visits it.  Recently decoded lines are cached.
+ * <p>This is not thread-safe: the decoder, the buffers of a line and
+ * the cache are shared by all reads.  An instance must not be shared
+ * between threads, so the parsers read the cells of a table before
+ * they return it and do not let the text escape a parse.
+ */
+public class MappedTextArt implements TextArt {
+
+	//
+	private static final int SEGMENT_BITS = 30;
+	private static final int CHECKPOINT_BITS = 6;
+	private static final int CACHE_SIZE = 1024;
+
+	//
+	private MappedByteBuffer[] segments;
+	private int segmentBits;
+	private long length;
+	private long[] checkpoints;
+	private int rows, xmax;
+	private CharsetDecoder decoder;
+	private byte[] lineBytes = new byte[256];
+	private CharBuffer lineChars = CharBuffer.allocate(256);
+
+	//
+	private int[] cacheRows = new int[CACHE_SIZE];
+	private char[][] cacheChars = new char[CACHE_SIZE][];
+	private byte[][] cacheKinds = new byte[CACHE_SIZE][];
+
+	//
+	MappedTextArt(File f, Charset cs) throws IOException {
+		this(f, cs, SEGMENT_BITS);
+	}
+
+	// maps the file by segments of 2^bits bytes
+	MappedTextArt(File f, Charset cs, int bits) throws IOException {
+		RandomAccessFile r = null;
+		FileChannel ch;
+		long l;
+
+		segmentBits = bits;
+		decoder = cs.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		try {
+			r = new RandomAccessFile(f, "r");
+			ch = r.getChannel();
+			length = ch.size();
+			segments = new MappedByteBuffer[
+					(int)(length >>> segmentBits) + 1];
+			for(int k = 0; k < segments.length; k++) {
+				l = (long)k << segmentBits;
+				segments[k] = ch.map(FileChannel.MapMode.READ_ONLY, l,
+						Math.min(length - l, 1L << segmentBits));
+			}
+		} finally {
+			if(r != null) {
+				r.close();
+			}
+		}
+
+		for(int k = 0; k < CACHE_SIZE; k++) {
+			cacheRows[k] = -1;
+		}
+		index();
+	}
+
+	//
+	private int byteAt(long p) {
+		return segments[(int)(p >>> segmentBits)].get(
+				(int)(p & ((1L << segmentBits) - 1)));
+	}
+
+	//
+	private long endOfLine(long p) {
+		for(; p < length; p++) {
+			if(byteAt(p) == '\n') {
+				return p;
+			}
+		}
+		return p;
+	}
+
+	//
+	private void index() {
+		long[] a = new long[16];
+		long p = 0, q;
+		int w;
+
+		rows = xmax = 0;
+		while(p < length) {
+			if((rows & ((1 << CHECKPOINT_BITS) - 1)) == 0) {
+				if((rows >>> CHECKPOINT_BITS) >= a.length) {
+					long[] b = new long[a.length * 2];
+
+					System.arraycopy(a, 0, b, 0, a.length);
+					a = b;
+				}
+				a[rows >>> CHECKPOINT_BITS] = p;
+			}
+			q = endOfLine(p);
+			w = QuadroFactory.len(decode(p, q), false);
+			xmax = xmax < w ? w : xmax;
+			rows++;
+			p = q + 1;
+		}
+		checkpoints = a;
+	}
+
+	//
+	private CharBuffer decode(long p, long q) {
+		ByteBuffer b;
+		int l, s, o;
+
+		if(q > p && byteAt(q - 1) == '\r') {
+			q--;
+		}
+		l = (int)(q - p);
+		if(lineBytes.length < l) {
+			lineBytes = new byte[l];
+		}
+
+		for(int k = 0; k < l; k += s) {
+			o = (int)((p + k) & ((1L << segmentBits) - 1));
+			b = segments[(int)((p + k) >>> segmentBits)].duplicate();
+			s = Math.min(l - k, b.capacity() - o);
+			b.position(o);
+			b.get(lineBytes, k, s);
+		}
+
+		if(lineChars.capacity() < l) {
+			lineChars = CharBuffer.allocate(l);
+		}
+		lineChars.clear();
+		decoder.reset();
+		decoder.decode(ByteBuffer.wrap(lineBytes, 0, l), lineChars,
+				true);
+		decoder.flush(lineChars);
+		lineChars.flip();
+		return lineChars;
+	}
+
+	//
+	private int load(int row) {
+		int c = row & (CACHE_SIZE - 1), w;
+		CharBuffer b;
+		long p;
+
+		if(cacheRows[c] == row) {
+			return c;
+		}
+
+		p = checkpoints[row >>> CHECKPOINT_BITS];
+		for(int k = row & ~((1 << CHECKPOINT_BITS) - 1); k < row; k++) {
+			p = endOfLine(p) + 1;
+		}
+		b = decode(p, endOfLine(p));
+		w = QuadroFactory.len(b, false);
+		if(cacheChars[c] == null || cacheChars[c].length != w) {
+			cacheChars[c] = new char[w];
+			cacheKinds[c] = new byte[w];
+		}
+		CompactTextArt.expand(b, cacheChars[c], cacheKinds[c], 0);
+		cacheRows[c] = row;
+		return c;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#get(int, int)
+	 */
+	@Override
+	public Pixel get(int row, int column) {
+		int c;
+
+		if(row > rows || row < -1) {
+			throw new IllegalStateException();
+		} else if(row == rows || row == -1) {
+			return Pixel.BOUND;
+		} else if(column > xmax || column < -1) {
+			throw new IllegalStateException();
+		} else if(column == xmax || column == -1) {
+			return Pixel.BOUND;
+		} else if(column >= cacheChars[c = load(row)].length) {
+			return Pixel.SPACE;
+		} else if(cacheKinds[c][column] == Pixel._EQ_TO_LEFT) {
+			return Pixel.EQ_TO_LEFT;
+		} else {
+			return Pixel.getPixel(cacheChars[c][column]);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#getRows()
+	 */
+	@Override
+	public int getRows() {
+		return rows;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.TextArt#getColumns()
+	 */
+	@Override
+	public int getColumns() {
+		return xmax;
+	}
+
+}
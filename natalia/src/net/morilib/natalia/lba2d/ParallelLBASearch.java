@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Searches the configurations of a nondeterministic LBA for an
+ * accepting one on a ForkJoinPool.
+ * <p>Each task explores its configurations depth first and hands
+ * the older half of them to a new task when it has many, so idle
+ * workers steal them.  The configurations are deduplicated in a
+ * set shared by all tasks, and every task stops as soon as one of
+ * them accepts or a budget runs out.
+ * <p>The transition runs on several threads at once: it and the
+ * TextArt under the Quadro must allow that, and the forks must not
+ * write to a shared TableModelBuilder.
+ */
+public class ParallelLBASearch<S, P> {
+
+	//
+	private static final int SPLIT = 16;
+
+	//
+	private LBATransition<S, P> lba;
+	private ForkJoinPool pool;
+	private long stepBudget = Long.MAX_VALUE;
+	private int memoryBudget = Integer.MAX_VALUE;
+	private SearchStatistics statistics;
+
+	//
+	private class Run {
+
+		private P accept;
+		private VisitedSet<S, P> visited = new VisitedSet<S, P>();
+		private AtomicInteger visitedCount = new AtomicInteger();
+		private AtomicBoolean done = new AtomicBoolean();
+		private AtomicReference<ID<S, P>> found =
+				new AtomicReference<ID<S, P>>();
+		private AtomicReference<SearchStatistics.Result> result =
+				new AtomicReference<SearchStatistics.Result>();
+		private AtomicLong explored = new AtomicLong();
+		private AtomicLong generated = new AtomicLong();
+		private AtomicLong pruned = new AtomicLong();
+
+		private void stop(SearchStatistics.Result r) {
+			result.compareAndSet(null, r);
+			done.set(true);
+		}
+
+	}
+
+	//
+	private class Explorer extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private Run run;
+		private ArrayDeque<ID<S, P>> stack;
+
+		private Explorer(Run r, ArrayDeque<ID<S, P>> s) {
+			run = r;
+			stack = s;
+		}
+
+		@Override
+		protected void compute() {
+			List<Explorer> l = new ArrayList<Explorer>();
+			ArrayDeque<ID<S, P>> h;
+			Explorer x;
+			ID<S, P> d;
+
+			while(!run.done.get() && (d = stack.pollLast()) != null) {
+				if(d.getState().equals(run.accept)) {
+					if(run.found.compareAndSet(null, d)) {
+						run.stop(SearchStatistics.Result.ACCEPTED);
+					}
+					break;
+				} else if(run.explored.incrementAndGet() > stepBudget) {
+					run.explored.decrementAndGet();
+					run.stop(SearchStatistics.Result.STEP_BUDGET);
+					break;
+				}
+
+				for(ID<S, P> e : lba.transit(d)) {
+					run.generated.incrementAndGet();
+					if(!run.visited.add(e)) {
+						run.pruned.incrementAndGet();
+					} else if(run.visitedCount.incrementAndGet() >
+							memoryBudget) {
+						run.stop(SearchStatistics.Result.MEMORY_BUDGET);
+						break;
+					} else {
+						stack.addLast(e);
+					}
+				}
+
+				if(stack.size() >= SPLIT) {
+					h = new ArrayDeque<ID<S, P>>();
+					for(int k = stack.size() / 2; k > 0; k--) {
+						h.addLast(stack.pollFirst());
+					}
+					x = new Explorer(run, h);
+					x.fork();
+					l.add(x);
+				}
+			}
+
+			for(Explorer t : l) {
+				t.join();
+			}
+		}
+
+	}
+
+	/**
+	 * 
+	 * @param lba
+	 * @param pool
+	 */
+	public ParallelLBASearch(LBATransition<S, P> lba,
+			ForkJoinPool pool) {
+		this.lba = lba;
+		this.pool = pool;
+	}
+
+	/**
+	 * 
+	 * @param n the maximum number of configurations to expand
+	 * @return
+	 */
+	public ParallelLBASearch<S, P> setStepBudget(long n) {
+		if(n < 0) {
+			throw new IllegalArgumentException();
+		}
+		stepBudget = n;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @param n the maximum number of configurations to remember
+	 * @return
+	 */
+	public ParallelLBASearch<S, P> setMemoryBudget(int n) {
+		if(n < 1) {
+			throw new IllegalArgumentException();
+		}
+		memoryBudget = n;
+		return this;
+	}
+
+	/**
+	 * gets the statistics of the last search.
+	 * The size of the frontier is not counted.
+	 * 
+	 * @return
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * 
+	 * @param quadro
+	 * @param state
+	 * @param accept
+	 * @return an accepting configuration, or null if not found
+	 */
+	public ID<S, P> search(Quadro<S> quadro, P state, P accept) {
+		ArrayDeque<ID<S, P>> s = new ArrayDeque<ID<S, P>>();
+		SearchStatistics t = new SearchStatistics();
+		Run r = new Run();
+		ID<S, P> d;
+
+		r.accept = accept;
+		d = new ID<S, P>(quadro, state);
+		r.visited.add(d);
+		r.visitedCount.set(1);
+		s.add(d);
+		pool.invoke(new Explorer(r, s));
+
+		r.result.compareAndSet(null, SearchStatistics.Result.REJECTED);
+		t.result = r.result.get();
+		t.explored = r.explored.get();
+		t.generated = r.generated.get();
+		t.pruned = r.pruned.get();
+		t.visited = r.visitedCount.get();
+		statistics = t;
+		return r.found.get();
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.morilib.natalia.core.ParseAbortedException;
+import net.morilib.natalia.core.ParseAbortedException.Reason;
+import net.morilib.natalia.core.TableModelBuilder;
+
+/**
+ * The limit of one request, which counts the steps of its parses.
+ * <p>The budget is checked at every step, and the deadline and
+ * cancellation are checked once in every 1024 steps.  A parse whose
+ * thread is interrupted is cancelled as well.
+ * An instance must not be shared between threads, use split()
+ * to parse a request in parallel.
+ * <p>A limit and its splits draw the steps from one budget.  Each
+ * takes 1024 steps at a time from the budget so that the threads do
+ * not contend at every step, and gives back what it has not used by
+ * release().
+ */
+public final class ParseLimit {
+
+	//
+	private static final int CHECK_MASK = 1023;
+	private static final int LEASE = CHECK_MASK + 1;
+
+	//
+	private ParseOptions options;
+	private AtomicLong taken;
+	private long budget, deadline, steps, leased;
+	private boolean timed;
+
+	//
+	ParseLimit(ParseOptions o, long budget, long deadline, boolean timed) {
+		this(o, budget, deadline, timed, new AtomicLong());
+	}
+
+	//
+	private ParseLimit(ParseOptions o, long budget, long deadline,
+			boolean timed, AtomicLong taken) {
+		this.options = o;
+		this.budget = budget;
+		this.deadline = deadline;
+		this.timed = timed;
+		this.taken = taken;
+	}
+
+	// takes steps from the budget shared with the splits
+	private boolean lease() {
+		long n, t;
+
+		do {
+			if((t = taken.get()) >= budget) {
+				return false;
+			}
+			n = Math.min(LEASE, budget - t);
+		} while(!taken.compareAndSet(t, t + n));
+		leased += n;
+		return true;
+	}
+
+	//
+	private void abort(Reason r, Quadro<?> q, Object state) {
+		throw new ParseAbortedException(r, steps, state,
+				q.getRowPosition(), q.getColumnPosition());
+	}
+
+	/**
+	 * counts a step.
+	 * 
+	 * @param q
+	 * @param state the state after the step
+	 * @throws ParseAbortedException if the parse is over the limit
+	 */
+	public void step(Quadro<?> q, Object state) {
+		if(++steps > leased && !lease()) {
+			abort(Reason.STEP_BUDGET, q, state);
+		} else if((steps & CHECK_MASK) != 0) {
+			// checks later
+		} else if(options.isCancelled() ||
+				Thread.currentThread().isInterrupted()) {
+			abort(Reason.CANCELLED, q, state);
+		} else if(timed && System.nanoTime() - deadline > 0) {
+			abort(Reason.DEADLINE, q, state);
+		}
+	}
+
+	/**
+	 * makes a builder of a table by the factory of the options.
+	 * 
+	 * @return
+	 * @see ParseOptions#getTableModelBuilderFactory()
+	 */
+	public TableModelBuilder newTableModelBuilder() {
+		return options.getTableModelBuilderFactory().newInstance();
+	}
+
+	/**
+	 * 
+	 * @return the steps which are counted
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * gives back the steps which this has taken from the budget and
+	 * not used.
+	 */
+	public void release() {
+		taken.addAndGet(steps - leased);
+		leased = steps;
+	}
+
+	/**
+	 * makes a limit which draws from the same budget and has the
+	 * same deadline of this.
+	 * The steps which this has not used are given back first, so
+	 * this must not be stepping while it is split.
+	 * 
+	 * @return
+	 */
+	public ParseLimit split() {
+		release();
+		return new ParseLimit(options, budget, deadline, timed, taken);
+	}
+
+}
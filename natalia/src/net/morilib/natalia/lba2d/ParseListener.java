@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import net.morilib.natalia.core.TableModel;
+
+/**
+ * Receives the progress of a parse.
+ * <p>A parser given no listener runs a loop without any of these
+ * calls.
+ */
+public interface ParseListener<S, P> {
+
+	/**
+	 * 
+	 * @param q
+	 * @param state the initial state
+	 */
+	public void parseStarted(Quadro<S> q, P state);
+
+	/**
+	 * called after each step.
+	 * 
+	 * @param q
+	 * @param from
+	 * @param to
+	 * @param handler the transition which handled the step
+	 * @param nanos the time of the step
+	 */
+	public void transited(Quadro<S> q, P from, P to,
+			Transition<S, P> handler, long nanos);
+
+	/**
+	 * 
+	 * @param m
+	 */
+	public void tableParsed(TableModel m);
+
+	/**
+	 * 
+	 * @param q
+	 * @param state the state in which the parse failed
+	 * @param e
+	 */
+	public void parseFailed(Quadro<S> q, P state, RuntimeException e);
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.concurrent.TimeUnit;
+
+import net.morilib.natalia.core.SimpleTableModelBuilder;
+import net.morilib.natalia.core.TableModelBuilderFactory;
+
+/**
+ * Limits of parses: a budget of steps, a timeout and cancellation.
+ * <p>The budget and the timeout are counted from the start of each
+ * request.  Cancelling the options stops every parse which uses them,
+ * so an instance should be shared only by the requests which are
+ * cancelled together.  The options given to a parser apply to all of
+ * its parses, and a request which may be cancelled by itself should
+ * be given its own options by the methods which take them.
+ * Interrupting the thread of a parse stops the parse as cancelling
+ * its options does.
+ * <p>The limits bound the parses by the LBA and by the regular grid
+ * parser of TableParser.  They do not bound the methods which read
+ * lines without the LBA: DBTextParser#readDBRows and
+ * DBTextParser#parseDBColumns, TableParser#parseMySQLOutput and
+ * TableParser#parseMySQLColumns, and the sniffing of FormatSniffer.
+ * <p>The options also choose the builder of the tables which the
+ * parses by the LBA and by the regular grid parser make.
+ */
+public class ParseOptions {
+
+	//
+	private long stepBudget = Long.MAX_VALUE;
+	private long timeout = -1;
+	private volatile boolean cancelled;
+	private TableModelBuilderFactory builders =
+			SimpleTableModelBuilder.FACTORY;
+
+	/**
+	 * sets the maximum number of steps of a request.
+	 * 
+	 * @param steps
+	 * @return this
+	 */
+	public ParseOptions setStepBudget(long steps) {
+		if(steps < 0) {
+			throw new IllegalArgumentException();
+		}
+		stepBudget = steps;
+		return this;
+	}
+
+	/**
+	 * sets the time which a request may take.
+	 * 
+	 * @param time
+	 * @param unit
+	 * @return this
+	 */
+	public ParseOptions setTimeout(long time, TimeUnit unit) {
+		if(time < 0) {
+			throw new IllegalArgumentException();
+		}
+		timeout = unit.toNanos(time);
+		return this;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getStepBudget() {
+		return stepBudget;
+	}
+
+	/**
+	 * 
+	 * @param unit
+	 * @return the timeout, or -1 if no timeout is set
+	 */
+	public long getTimeout(TimeUnit unit) {
+		return timeout < 0 ?
+				-1 : unit.convert(timeout, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * stops the parses which use this options.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * sets the factory of the builders of the tables.
+	 * 
+	 * @param f
+	 * @return this
+	 */
+	public ParseOptions setTableModelBuilderFactory(
+			TableModelBuilderFactory f) {
+		if(f == null) {
+			throw new NullPointerException();
+		}
+		builders = f;
+		return this;
+	}
+
+	/**
+	 * 
+	 * @return the factory of the builders of the tables
+	 */
+	public TableModelBuilderFactory getTableModelBuilderFactory() {
+		return builders;
+	}
+
+	/**
+	 * starts a request.
+	 * 
+	 * @return the limit of the request
+	 */
+	public ParseLimit start() {
+		return new ParseLimit(this, stepBudget,
+				timeout < 0 ? 0 : System.nanoTime() + timeout, timeout >= 0);
+	}
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.morilib.natalia.core.TableCell;
+import net.morilib.natalia.core.TableModel;
+
+/**
+ * A ParseListener which counts the steps of parses.
+ * <p>The counts accumulate over the parses until reset() is called.
+ * An instance must not be shared between threads.
+ */
+public class ParseStatistics<S, P extends Enum<P>>
+implements ParseListener<S, P> {
+
+	//
+	private P[] states;
+	private long[] visits;
+	private Map<Transition<S, P>, long[]> timings =
+			new IdentityHashMap<Transition<S, P>, long[]>();
+	private long steps, moves, cells, tables, failures;
+	private int row, column;
+
+	/**
+	 * 
+	 * @param states the class of states
+	 */
+	public ParseStatistics(Class<P> states) {
+		this.states = states.getEnumConstants();
+		visits = new long[this.states.length];
+	}
+
+	/**
+	 * 
+	 */
+	public void reset() {
+		visits = new long[states.length];
+		timings.clear();
+		steps = moves = cells = tables = failures = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.ParseListener#parseStarted(net.morilib.natalia.lba2d.Quadro, java.lang.Object)
+	 */
+	@Override
+	public void parseStarted(Quadro<S> q, P state) {
+		row = q.getRowPosition();
+		column = q.getColumnPosition();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.ParseListener#transited(net.morilib.natalia.lba2d.Quadro, java.lang.Object, java.lang.Object, net.morilib.natalia.lba2d.Transition, long)
+	 */
+	@Override
+	public void transited(Quadro<S> q, P from, P to,
+			Transition<S, P> handler, long nanos) {
+		long[] t;
+
+		steps++;
+		visits[from.ordinal()]++;
+		if(row != q.getRowPosition() || column != q.getColumnPosition()) {
+			row = q.getRowPosition();
+			column = q.getColumnPosition();
+			moves++;
+		}
+
+		if((t = timings.get(handler)) == null) {
+			timings.put(handler, t = new long[2]);
+		}
+		t[0]++;
+		t[1] += nanos;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.ParseListener#tableParsed(net.morilib.natalia.core.TableModel)
+	 */
+	@Override
+	public void tableParsed(TableModel m) {
+		for(Iterator<TableCell> i = m.iterator(); i.hasNext(); i.next()) {
+			cells++;
+		}
+		tables++;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.ParseListener#parseFailed(net.morilib.natalia.lba2d.Quadro, java.lang.Object, java.lang.RuntimeException)
+	 */
+	@Override
+	public void parseFailed(Quadro<S> q, P state, RuntimeException e) {
+		failures++;
+	}
+
+	/**
+	 * gets the number of steps taken in the given state.
+	 * 
+	 * @param state
+	 * @return
+	 */
+	public long getVisits(P state) {
+		return visits[state.ordinal()];
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * gets the number of steps which moved the head.
+	 * 
+	 * @return
+	 */
+	public long getHeadMoves() {
+		return moves;
+	}
+
+	/**
+	 * gets the time spent in each transition in nanoseconds,
+	 * keyed by the simple name of its class.
+	 * 
+	 * @return
+	 */
+	public Map<String, Long> getTimings() {
+		Map<String, Long> r = new TreeMap<String, Long>();
+		String s;
+		Long l;
+
+		for(Map.Entry<Transition<S, P>, long[]> e : timings.entrySet()) {
+			s = e.getKey().getClass().getSimpleName();
+			l = r.get(s);
+			r.put(s, (l != null ? l : 0) + e.getValue()[1]);
+		}
+		return r;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getCells() {
+		return cells;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getTables() {
+		return tables;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+
+		b.append("steps=").append(steps);
+		b.append(", moves=").append(moves);
+		b.append(", tables=").append(tables);
+		b.append(", cells=").append(cells);
+		b.append(", failures=").append(failures).append('\n');
+		for(P p : states) {
+			if(visits[p.ordinal()] > 0) {
+				b.append(p).append(": ");
+				b.append(visits[p.ordinal()]).append('\n');
+			}
+		}
+
+		for(Map.Entry<String, Long> e : getTimings().entrySet()) {
+			b.append(e.getKey()).append(": ");
+			b.append(e.getValue()).append("ns\n");
+		}
+		return b.toString();
+	}
+
+}
@@ -20,30 +20,61 @@ package net.morilib.natalia.lba2d;
  */
 public class Pixel {
 
+	//
+	static final byte _CELL = 0;
+	static final byte _WALL = 1;
+	static final byte _JUNCTION = 2;
+	static final byte _EQ_TO_LEFT = 3;
+	static final byte _BOUND = 4;
+
 	//
 	static final Pixel BOUND = new Pixel(-72);
 	static final Pixel SPACE = new Pixel(' ');
 	static final Pixel EQ_TO_LEFT = new Pixel(-1);
 
 	//
-	private static Pixel[] flyweight = new Pixel[256];
+	private static Pixel[][] flyweight = new Pixel[256][];
 
 	//
-	private int ch;
+	private final int ch;
+	private final byte kind;
 
 	//
 	Pixel(int c) {
 		ch = c;
+		kind = kindOf(c);
+	}
+
+	//
+	static byte kindOf(int c) {
+		switch(c) {
+		case '-':  case '=':  case '|':
+			return _WALL;
+		case '+':
+			return _JUNCTION;
+		case -1:
+			return _EQ_TO_LEFT;
+		case -72:
+			return _BOUND;
+		default:
+			return _CELL;
+		}
 	}
 
 	//
 	static Pixel getPixel(int c) {
-		if(c < 0 || c >= flyweight.length) {
+		Pixel[] a;
+
+		if(c < 0 || c > Character.MAX_VALUE) {
 			return new Pixel(c);
-		} else if(flyweight[c] == null) {
-			flyweight[c] = new Pixel(c);
+		} else if((a = flyweight[c >>> 8]) == null) {
+			a = flyweight[c >>> 8] = new Pixel[256];
+		}
+
+		if(a[c & 0xff] == null) {
+			a[c & 0xff] = new Pixel(c);
 		}
-		return flyweight[c];
+		return a[c & 0xff];
 	}
 
 	/**
@@ -51,7 +82,7 @@ public class Pixel {
 	 * @return
 	 */
 	public boolean isWall() {
-		return ch == '-' || ch == '=' || ch == '|';
+		return kind == _WALL;
 	}
 
 	/**
@@ -59,7 +90,7 @@ public class Pixel {
 	 * @return
 	 */
 	public boolean isJunction() {
-		return ch == '+';
+		return kind == _JUNCTION;
 	}
 
 	/**
@@ -67,7 +98,7 @@ public class Pixel {
 	 * @return
 	 */
 	public boolean isEqualsToLeft() {
-		return ch == -1;
+		return kind == _EQ_TO_LEFT;
 	}
 
 	/**
@@ -75,7 +106,7 @@ public class Pixel {
 	 * @return
 	 */
 	public boolean isBound() {
-		return ch == -72;
+		return kind == _BOUND;
 	}
 
 	/**
@@ -83,7 +114,7 @@ public class Pixel {
 	 * @return
 	 */
 	public boolean isCell() {
-		return !isWall() && !isJunction() && !isBound();
+		return kind == _CELL || kind == _EQ_TO_LEFT;
 	}
 
 	/**
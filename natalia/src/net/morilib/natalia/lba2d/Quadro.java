@@ -80,6 +80,20 @@ public interface Quadro<S> {
 	 */
 	public Quadro<S> forward();
 
+	/**
+	 * moves the head forward while it is on a wall.
+	 * 
+	 * @return
+	 */
+	public Quadro<S> skipWalls();
+
+	/**
+	 * moves the head forward until it is on a junction or a bound.
+	 * 
+	 * @return
+	 */
+	public Quadro<S> forwardToJunction();
+
 	/**
 	 * 
 	 * @return
@@ -209,6 +223,14 @@ public interface Quadro<S> {
 	 */
 	public String getTextRegister();
 
+	/**
+	 * gets the text register without building a String if the
+	 * Quadro can keep it as spans of the text.
+	 * 
+	 * @return
+	 */
+	public CharSequence getTextRegisterSequence();
+
 	/**
 	 * 
 	 * @return
@@ -286,4 +308,24 @@ public interface Quadro<S> {
 	 */
 	public String getDirection();
 
+	/**
+	 * gets a digest of the configuration: the position and the
+	 * direction of the head, the registers, the scratches and the
+	 * marks.  Equal configurations have equal digests.
+	 * 
+	 * @return
+	 */
+	public long getConfigurationDigest();
+
+	/**
+	 * compares the configuration of this with the configuration of
+	 * the given Quadro on the same text.
+	 * Different configurations may have equal digests, so this
+	 * decides whether the configurations are the same.
+	 * 
+	 * @param q
+	 * @return
+	 */
+	public boolean isSameConfiguration(Quadro<S> q);
+
 }
@@ -16,7 +16,9 @@
 package net.morilib.natalia.lba2d;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -57,7 +59,7 @@ public class QuadroFactory {
 	}
 
 	//
-	static int len(String s, boolean notfull) {
+	static int len(CharSequence s, boolean notfull) {
 		int r = 0;
 
 		for(int i = 0; i < s.length(); i++) {
@@ -66,38 +68,55 @@ public class QuadroFactory {
 		return r;
 	}
 
-	//
-	private static Pixel[] toPixel(String s) {
-		Pixel[] a;
-		int m;
-
-		a = new Pixel[len(s, false)];
-		for(int i = 0, j = 0; j < s.length(); i += m, j++) {
-			m = len(s.charAt(j), false);
-			a[i] = Pixel.getPixel(s.charAt(j));
-			for(int k = i + 1; k < i + m; k++) {
-				a[k] = Pixel.EQ_TO_LEFT;
-			}
-		}
-		return a;
+	/**
+	 * gets the number of the columns which the given character
+	 * takes, 2 for a full width character and 1 for others.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public static int width(char c) {
+		return len(c, false);
 	}
 
 	/**
+	 * gets the number of the columns which the given text takes.
 	 * 
 	 * @param s
 	 * @return
+	 * @see #width(char)
 	 */
-	public static<S> Quadro<S> newInstance(String s, S zero) {
-		String[] a = s.split("\n");
-		Pixel[][] p;
-		TextArt t;
+	public static int width(CharSequence s) {
+		return len(s, false);
+	}
 
-		p = new Pixel[a.length][];
-		for(int k = 0; k < a.length; k++) {
-			p[k] = toPixel(a[k]);
-		}
-		t = new MemoryTextArt(p);
-		return new QuadroImpl<S>(t, zero);
+	/**
+	 * creates a TextArt of the given text.
+	 * The TextArt may be read by many threads at once.
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public static TextArt newTextArt(String s) {
+		return new CompactTextArt(s.split("\n"));
+	}
+
+	/**
+	 * 
+	 * @param lines
+	 * @return
+	 */
+	public static TextArt newTextArt(List<String> lines) {
+		return new CompactTextArt(lines);
+	}
+
+	/**
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public static<S> Quadro<S> newInstance(String s, S zero) {
+		return new GridQuadro<S>(newTextArt(s), zero);
 	}
 
 	/**
@@ -108,16 +127,43 @@ public class QuadroFactory {
 	 */
 	public static<S> Quadro<S> newInstance(BufferedReader rd,
 			S zero) throws IOException {
-		List<Pixel[]> l;
+		List<String> l;
 		TextArt t;
 		String s;
 
-		l = new ArrayList<Pixel[]>();
+		l = new ArrayList<String>();
 		while((s = rd.readLine()) != null) {
-			l.add(toPixel(s));
+			l.add(s);
 		}
-		t = new MemoryTextArt(l);
-		return new QuadroImpl<S>(t, zero);
+		t = new CompactTextArt(l);
+		return new GridQuadro<S>(t, zero);
+	}
+
+	/**
+	 * 
+	 * @param t
+	 * @return
+	 */
+	public static<S> Quadro<S> newInstance(TextArt t, S zero) {
+		return new GridQuadro<S>(t, zero);
+	}
+
+	/**
+	 * reads the given file through memory mapping.
+	 * The text is not thread-safe, so the Quadro and its forks must
+	 * be used by one thread.
+	 * 
+	 * @param f
+	 * @return
+	 * @throws IOException
+	 * @see MappedTextArt
+	 */
+	public static<S> Quadro<S> newInstance(File f,
+			S zero) throws IOException {
+		TextArt t;
+
+		t = new MappedTextArt(f, Charset.forName("UTF-8"));
+		return new GridQuadro<S>(t, zero);
 	}
 
 }
@@ -78,6 +78,7 @@ public class QuadroImpl<S> implements Quadro<S> {
 	private Map<P, S> scratches;
 	private Map<P, Object>  marks;
 	private StringBuilder regString;
+	private int regHash;
 	private int rowRegister, columnRegister;
 	private int rowSpanRegister, columnSpanRegister;
 	private TableModelBuilder tableModelBuilder;
@@ -111,6 +112,7 @@ public class QuadroImpl<S> implements Quadro<S> {
 		q.scratches = new HashMap<P, S>(scratches);
 		q.marks     = new HashMap<P, Object>(marks);
 		q.regString = new StringBuilder(regString);
+		q.regHash = regHash;
 		q.rowRegister = rowRegister;
 		q.columnRegister = columnRegister;
 		q.rowSpanRegister = rowSpanRegister;
@@ -208,6 +210,28 @@ public class QuadroImpl<S> implements Quadro<S> {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#skipWalls()
+	 */
+	@Override
+	public Quadro<S> skipWalls() {
+		while(get().isWall()) {
+			forward();
+		}
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#forwardToJunction()
+	 */
+	@Override
+	public Quadro<S> forwardToJunction() {
+		while(!get().isJunction() && !get().isBound()) {
+			forward();
+		}
+		return this;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Quadro#turnNorth()
 	 */
@@ -421,6 +445,7 @@ public class QuadroImpl<S> implements Quadro<S> {
 	@Override
 	public Quadro<S> clearTextRegister() {
 		regString = new StringBuilder();
+		regHash = 0;
 		return this;
 	}
 
@@ -430,6 +455,9 @@ public class QuadroImpl<S> implements Quadro<S> {
 	@Override
 	public Quadro<S> appendTextRegister(int c) {
 		regString.appendCodePoint(c);
+		for(char x : Character.toChars(c)) {
+			regHash = regHash * 31 + x;
+		}
 		return this;
 	}
 
@@ -441,6 +469,14 @@ public class QuadroImpl<S> implements Quadro<S> {
 		return regString.toString();
 	}
 
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#getTextRegisterSequence()
+	 */
+	@Override
+	public CharSequence getTextRegisterSequence() {
+		return regString.toString();
+	}
+
 	/* (non-Javadoc)
 	 * @see net.morilib.natalia.Quadro#getRowRegister()
 	 */
@@ -551,7 +587,7 @@ public class QuadroImpl<S> implements Quadro<S> {
 	 */
 	@Override
 	public int getRowPosition() {
-		return xptr;
+		return yptr;
 	}
 
 	/* (non-Javadoc)
@@ -559,7 +595,7 @@ public class QuadroImpl<S> implements Quadro<S> {
 	 */
 	@Override
 	public int getColumnPosition() {
-		return yptr;
+		return xptr;
 	}
 
 	/* (non-Javadoc)
@@ -576,4 +612,70 @@ public class QuadroImpl<S> implements Quadro<S> {
 		}
 	}
 
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#getConfigurationDigest()
+	 */
+	@Override
+	public long getConfigurationDigest() {
+		long x = 0;
+
+		for(Map.Entry<P, S> e : scratches.entrySet()) {
+			if(e.getValue() != null && !e.getValue().equals(zero)) {
+				x ^= LBAs.cellDigest(e.getKey().row, e.getKey().column,
+						0, e.getValue());
+			}
+		}
+
+		for(Map.Entry<P, Object> e : marks.entrySet()) {
+			x ^= LBAs.cellDigest(e.getKey().row, e.getKey().column,
+					1, e.getValue());
+		}
+		return LBAs.headDigest(yptr, xptr, direction,
+				rowRegister, columnRegister,
+				rowSpanRegister, columnSpanRegister,
+				regHash) ^ x;
+	}
+
+	//
+	private boolean isZero(S s) {
+		return s == null || s.equals(zero);
+	}
+
+	//
+	private boolean containsScratches(QuadroImpl<S> q) {
+		for(Map.Entry<P, S> e : scratches.entrySet()) {
+			if(!isZero(e.getValue()) &&
+					!e.getValue().equals(q.scratches.get(e.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.morilib.natalia.lba2d.Quadro#isSameConfiguration(net.morilib.natalia.lba2d.Quadro)
+	 */
+	@Override
+	public boolean isSameConfiguration(Quadro<S> q) {
+		QuadroImpl<S> r;
+
+		if(!(q instanceof QuadroImpl)) {
+			return false;
+		}
+
+		r = (QuadroImpl<S>)q;
+		return (pixels == r.pixels &&
+				yptr == r.yptr && xptr == r.xptr &&
+				direction == r.direction &&
+				rowRegister == r.rowRegister &&
+				columnRegister == r.columnRegister &&
+				rowSpanRegister == r.rowSpanRegister &&
+				columnSpanRegister == r.columnSpanRegister &&
+				regHash == r.regHash &&
+				regString.toString().equals(r.regString.toString()) &&
+				marks.equals(r.marks) &&
+				containsScratches(r) && r.containsScratches(this));
+	}
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * Makes Quadros which reuse the planes of the last one.
+ * <p>The buffers grow to the largest text which is loaded and are
+ * kept until clear() is called.
+ * A Quadro made by this, its forks and the TextSpans of its text
+ * register may be used until the next Quadro is made, and an
+ * instance must not be shared between threads.
+ */
+public class QuadroRecycler<S> {
+
+	//
+	private S zero;
+	private CompactTextArt text;
+	private GridQuadro<S> quadro;
+
+	/**
+	 * 
+	 * @param zero
+	 */
+	public QuadroRecycler(S zero) {
+		this.zero = zero;
+	}
+
+	/**
+	 * makes a Quadro of the given text, which is split into rows
+	 * as QuadroFactory.newInstance(String, S) does.
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public Quadro<S> newInstance(CharSequence s) {
+		if(text == null) {
+			text = new CompactTextArt(new String[0]);
+		}
+		text.load(s);
+
+		if(quadro == null) {
+			quadro = new GridQuadro<S>(text, zero);
+		}
+		quadro.reset(text);
+		return quadro;
+	}
+
+	/**
+	 * releases the buffers.
+	 */
+	public void clear() {
+		text = null;
+		quadro = null;
+	}
+
+}
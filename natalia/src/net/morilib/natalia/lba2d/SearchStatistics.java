@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * Statistics of a run of LBASearch.
+ */
+public class SearchStatistics {
+
+	/**
+	 * How a search ended.
+	 */
+	public static enum Result {
+		ACCEPTED, REJECTED, STEP_BUDGET, MEMORY_BUDGET
+	}
+
+	//
+	Result result;
+	long explored, generated, pruned;
+	int maxFrontier, visited;
+
+	/**
+	 * 
+	 * @return
+	 */
+	public Result getResult() {
+		return result;
+	}
+
+	/**
+	 * gets the number of configurations which are expanded.
+	 * 
+	 * @return
+	 */
+	public long getExplored() {
+		return explored;
+	}
+
+	/**
+	 * gets the number of configurations which are produced by
+	 * the transition.
+	 * 
+	 * @return
+	 */
+	public long getGenerated() {
+		return generated;
+	}
+
+	/**
+	 * gets the number of configurations which are dropped because
+	 * they have been visited.
+	 * 
+	 * @return
+	 */
+	public long getPruned() {
+		return pruned;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getMaxFrontier() {
+		return maxFrontier;
+	}
+
+	/**
+	 * gets the number of distinct configurations which are seen.
+	 * 
+	 * @return
+	 */
+	public int getVisited() {
+		return visited;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return result + ": explored=" + explored +
+				", generated=" + generated +
+				", pruned=" + pruned +
+				", visited=" + visited +
+				", maxFrontier=" + maxFrontier;
+	}
+
+}
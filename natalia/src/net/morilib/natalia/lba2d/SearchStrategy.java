@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * The order in which LBASearch explores configurations.
+ */
+public enum SearchStrategy {
+
+	/**
+	 * explores the latest configuration first.
+	 */
+	DEPTH_FIRST,
+
+	/**
+	 * explores the earliest configuration first.
+	 */
+	BREADTH_FIRST,
+
+	/**
+	 * explores the least configuration by the heuristic first.
+	 */
+	BEST_FIRST
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Arrays;
+
+/**
+ * The text register of a GridQuadro.
+ * <p>The pixels under the head and newlines are kept as spans of
+ * the TextArt, until another character is appended and the register
+ * turns into a string.
+ */
+final class TextRegister {
+
+	//
+	private StringBuilder string = new StringBuilder();
+	private int[] spans = new int[12];
+	private int count;
+	private boolean spanned = true;
+	private int hash;
+
+	//
+	TextRegister copy() {
+		TextRegister r = new TextRegister();
+
+		r.string.append(string);
+		r.spans = spans.clone();
+		r.count = count;
+		r.spanned = spanned;
+		r.hash = hash;
+		return r;
+	}
+
+	//
+	void clear() {
+		string.setLength(0);
+		count = 0;
+		spanned = true;
+		hash = 0;
+	}
+
+	//
+	private void add(int row, int start, int end) {
+		if(count + 3 > spans.length) {
+			spans = Arrays.copyOf(spans, spans.length * 2);
+		}
+		spans[count++] = row;
+		spans[count++] = start;
+		spans[count++] = end;
+	}
+
+	// true if only halves of full width characters are in [end, col)
+	private static boolean adjoins(TextArt t, int row, int end,
+			int col) {
+		if(end > col) {
+			return false;
+		}
+
+		for(int c = end; c < col; c++) {
+			if(!t.get(row, c).isEqualsToLeft()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * appends a character when the head is at the given position.
+	 * 
+	 * @param t
+	 * @param row
+	 * @param col
+	 * @param c
+	 */
+	void append(TextArt t, int row, int col, int c) {
+		Pixel p;
+
+		for(char x : Character.toChars(c)) {
+			hash = hash * 31 + x;
+		}
+
+		if(!spanned) {
+			string.appendCodePoint(c);
+		} else if(c == '\n') {
+			add(-1, 0, 0);
+		} else if((p = t.get(row, col)).isEqualsToLeft() ||
+				p.getChar() != c) {
+			// not the pixel under the head
+			TextSpans.appendTo(string, t, spans, count);
+			string.appendCodePoint(c);
+			spanned = false;
+		} else if(count > 0 && spans[count - 3] == row &&
+				adjoins(t, row, spans[count - 1], col)) {
+			spans[count - 1] = col + 1;
+		} else {
+			add(row, col, col + 1);
+		}
+	}
+
+	/**
+	 * gets the hash code of the text, which is the same as the hash
+	 * code of the String, without building the text.
+	 * 
+	 * @return
+	 */
+	int textHash() {
+		return hash;
+	}
+
+	/**
+	 * 
+	 * @param t
+	 * @return the text, which is a TextSpans if it is spanned
+	 */
+	CharSequence toCharSequence(TextArt t) {
+		return spanned ?
+				new TextSpans(t, Arrays.copyOf(spans, count), false) :
+				string.toString();
+	}
+
+	/**
+	 * 
+	 * @param t
+	 * @return
+	 */
+	String toString(TextArt t) {
+		StringBuilder b;
+
+		if(spanned) {
+			b = new StringBuilder();
+			TextSpans.appendTo(b, t, spans, count);
+			return b.toString();
+		}
+		return string.toString();
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * A text made of spans of the rows of a TextArt, which builds its
+ * String only when it is asked.
+ * <p>Each span is a row and a range of columns, and a span whose
+ * row is -1 stands for a newline.  The second half of a full width
+ * character is skipped.
+ */
+public final class TextSpans implements CharSequence {
+
+	//
+	private TextArt text;
+	private int[] spans;
+	private boolean trimmed;
+	private String string;
+
+	//
+	TextSpans(TextArt t, int[] s, boolean trim) {
+		text = t;
+		spans = s;
+		trimmed = trim;
+	}
+
+	//
+	static void appendTo(StringBuilder b, TextArt t, int[] s, int n) {
+		Pixel p;
+
+		for(int i = 0; i < n; i += 3) {
+			if(s[i] < 0) {
+				b.append('\n');
+				continue;
+			}
+
+			for(int c = s[i + 1]; c < s[i + 2]; c++) {
+				if(!(p = t.get(s[i], c)).isEqualsToLeft()) {
+					b.appendCodePoint(p.getChar());
+				}
+			}
+		}
+	}
+
+	/**
+	 * trims the given text, lazily if it is a TextSpans.
+	 * 
+	 * @param s
+	 * @return
+	 */
+	public static CharSequence trim(CharSequence s) {
+		return s instanceof TextSpans ?
+				((TextSpans)s).trim() : s.toString().trim();
+	}
+
+	/**
+	 * 
+	 * @return the text without the leading and trailing white spaces
+	 */
+	public TextSpans trim() {
+		return trimmed ? this : new TextSpans(text, spans, true);
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public boolean isTrimmed() {
+		return trimmed;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public TextArt getTextArt() {
+		return text;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public int getSpanCount() {
+		return spans.length / 3;
+	}
+
+	/**
+	 * 
+	 * @param i
+	 * @return the row of the span, or -1 if a newline
+	 */
+	public int getRow(int i) {
+		return spans[i * 3];
+	}
+
+	/**
+	 * 
+	 * @param i
+	 * @return the first column of the span
+	 */
+	public int getStart(int i) {
+		return spans[i * 3 + 1];
+	}
+
+	/**
+	 * 
+	 * @param i
+	 * @return the column after the span
+	 */
+	public int getEnd(int i) {
+		return spans[i * 3 + 2];
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#length()
+	 */
+	@Override
+	public int length() {
+		return toString().length();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#charAt(int)
+	 */
+	@Override
+	public char charAt(int index) {
+		return toString().charAt(index);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#subSequence(int, int)
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().subSequence(start, end);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder b;
+
+		if(string == null) {
+			b = new StringBuilder();
+			appendTo(b, text, spans, spans.length);
+			string = trimmed ? b.toString().trim() : b.toString();
+		}
+		return string;
+	}
+
+}
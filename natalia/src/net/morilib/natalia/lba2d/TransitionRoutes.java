@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+/**
+ * A table which maps each state to the sub-transition which
+ * handles it.
+ * <p>The states of the sub-transitions are collected once when the
+ * table is built, so that routing a state costs one array lookup.
+ * If two sub-transitions have the same state, the former wins.
+ */
+public class TransitionRoutes<S, P extends Enum<P>> {
+
+	//
+	private Transition<S, P>[] routes;
+
+	// an empty table
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	TransitionRoutes(Class<P> states) {
+		routes = new Transition[states.getEnumConstants().length];
+	}
+
+	/**
+	 *
+	 * @param states the class of states
+	 * @param ts sub-transitions in the order of priority
+	 */
+	@SuppressWarnings("unchecked")
+	public TransitionRoutes(Class<P> states, Transition<S, P>... ts) {
+		this(states);
+		for(Transition<S, P> t : ts) {
+			for(P p : t.getStates()) {
+				if(routes[p.ordinal()] == null) {
+					routes[p.ordinal()] = t;
+				}
+			}
+		}
+	}
+
+	//
+	void put(P state, Transition<S, P> t) {
+		routes[state.ordinal()] = t;
+	}
+
+	/**
+	 *
+	 * @param state
+	 * @return the sub-transition, or null if no one has the state
+	 */
+	public Transition<S, P> get(P state) {
+		return routes[state.ordinal()];
+	}
+
+	/**
+	 *
+	 * @param q
+	 * @param state
+	 * @return
+	 */
+	public P transit(Quadro<S> q, P state) {
+		Transition<S, P> t;
+
+		if((t = routes[state.ordinal()]) == null) {
+			throw new IllegalStateException();
+		}
+		return t.transit(q, state);
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The configurations which a search has visited.
+ * <p>The configurations are looked up by their digests, and a
+ * configuration whose digest is found is compared with the
+ * configurations of the digest, so that a collision of digests does
+ * not prune a configuration.  This can be shared between threads.
+ */
+class VisitedSet<S, P> {
+
+	//
+	private ConcurrentMap<Long, List<ID<S, P>>> map =
+			new ConcurrentHashMap<Long, List<ID<S, P>>>();
+	private AtomicInteger size = new AtomicInteger();
+
+	//
+	long key(ID<S, P> d) {
+		return LBAs.mix(d.getQuadro().getConfigurationDigest() +
+				d.getState().hashCode());
+	}
+
+	//
+	private static<S, P> boolean isSame(ID<S, P> a, ID<S, P> b) {
+		return (a.getState().equals(b.getState()) &&
+				a.getQuadro().isSameConfiguration(b.getQuadro()));
+	}
+
+	/**
+	 * 
+	 * @param d
+	 * @return true if the configuration has not been visited
+	 */
+	boolean add(ID<S, P> d) {
+		List<ID<S, P>> l, m;
+		Long k = key(d);
+
+		if((l = map.get(k)) == null) {
+			m = new ArrayList<ID<S, P>>(1);
+			m.add(d);
+			if((l = map.putIfAbsent(k, m)) == null) {
+				size.incrementAndGet();
+				return true;
+			}
+		}
+
+		synchronized(l) {
+			for(ID<S, P> e : l) {
+				if(isSame(e, d)) {
+					return false;
+				}
+			}
+			l.add(d);
+		}
+		size.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * 
+	 * @return the number of the visited configurations
+	 */
+	int size() {
+		return size.get();
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a text line by line and cuts it into windows, each of which
+ * holds the rows of one or more frames.
+ * <p>A window opens at the first row which has the top left corner
+ * of a frame and grows while the left edge of some open frame
+ * continues.  Rows outside every window are dropped as soon as they
+ * are read, so only the rows of the frames being read are buffered.
+ */
+public class WindowedTextArtReader {
+
+	//
+	private BufferedReader reader;
+	private String pending;
+	private char[] chars = new char[80];
+	private byte[] kinds = new byte[80];
+	private int[] open = new int[8];
+	private int openCount;
+	private int next, row = -1;
+
+	/**
+	 *
+	 * @param rd
+	 */
+	public WindowedTextArtReader(BufferedReader rd) {
+		reader = rd;
+	}
+
+	//
+	private String readLine() throws IOException {
+		String s = pending;
+
+		if(s != null) {
+			pending = null;
+		} else if((s = reader.readLine()) == null) {
+			return null;
+		}
+		next++;
+		return s;
+	}
+
+	//
+	private int expand(String s) {
+		int l = QuadroFactory.len(s, false);
+
+		if(kinds.length < l) {
+			chars = new char[l];
+			kinds = new byte[l];
+		}
+		CompactTextArt.expand(s, chars, kinds, 0);
+		return l;
+	}
+
+	//
+	private boolean isEdge(int l, int c) {
+		return c < l && (kinds[c] == Pixel._WALL ||
+				kinds[c] == Pixel._JUNCTION);
+	}
+
+	//
+	private boolean isCorner(int l, int c) {
+		return kinds[c] == Pixel._JUNCTION &&
+				isEdge(l, c + 1) && isEdge(l, c + 2);
+	}
+
+	//
+	private void openFrames(int l) {
+		int[] a;
+
+		outer: for(int c = 0; c < l; c++) {
+			if(isCorner(l, c)) {
+				for(int k = 0; k < openCount; k++) {
+					if(open[k] == c)  continue outer;
+				}
+
+				if(openCount >= open.length) {
+					a = new int[open.length * 2];
+					System.arraycopy(open, 0, a, 0, openCount);
+					open = a;
+				}
+				open[openCount++] = c;
+			}
+		}
+	}
+
+	//
+	private void closeFrames(int l) {
+		int n = 0;
+
+		for(int k = 0; k < openCount; k++) {
+			if(isEdge(l, open[k])) {
+				open[n++] = open[k];
+			}
+		}
+		openCount = n;
+	}
+
+	/**
+	 * gets the line number of the first row of the last window,
+	 * counted from 0.
+	 * 
+	 * @return the line number, or -1 if no window is read
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * reads the next window.
+	 *
+	 * @return the rows of the next window, or null at the end of text
+	 * @throws IOException
+	 */
+	public TextArt nextWindow() throws IOException {
+		List<String> w = new ArrayList<String>();
+		String s;
+		int l;
+
+		openCount = 0;
+		while((s = readLine()) != null) {
+			l = expand(s);
+			if(!w.isEmpty()) {
+				closeFrames(l);
+				if(openCount == 0) {
+					pending = s;
+					next--;
+					break;
+				}
+			}
+			openFrames(l);
+			if(openCount > 0) {
+				if(w.isEmpty()) {
+					row = next - 1;
+				}
+				w.add(s);
+			}
+		}
+		return w.isEmpty() ? null : new CompactTextArt(w);
+	}
+
+}
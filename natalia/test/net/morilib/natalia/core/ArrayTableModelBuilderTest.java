@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ArrayTableModelBuilderTest extends TestCase {
+
+	static String dump(TableCell c) {
+		if(c == null) {
+			return "null";
+		}
+		return c.getRow() + "," + c.getColumn() + "," + c.getRowSpan() +
+				"," + c.getColumnSpan() + "," + c.getCell() + "," +
+				(c.getMergedCell() == null ? "-" :
+					dump(c.getMergedCell()));
+	}
+
+	static String dump(Iterator<TableCell> i) {
+		StringBuilder b = new StringBuilder();
+
+		while(i.hasNext()) {
+			b.append(dump(i.next())).append(';');
+		}
+		return b.toString();
+	}
+
+	static void check(TableModel m, TableModel n) {
+		assertEquals(m.toString(), n.toString());
+		assertEquals(m.rowSize(), n.rowSize());
+		assertEquals(m.columnSize(), n.columnSize());
+		for(int i = -1; i < 9; i++) {
+			for(int j = -1; j < 9; j++) {
+				assertEquals(dump(m.get(i, j)), dump(n.get(i, j)));
+			}
+		}
+		assertEquals(dump(m.iterator()), dump(n.iterator()));
+		assertEquals(dump(m.allIterator()), dump(n.allIterator()));
+	}
+
+	public void testT0001() {
+		TableModelBuilder a, b;
+		Random r = new Random(72);
+		TableModel m, n;
+		int l, x, y, p, q;
+
+		// the tables see the cells appended after they are made
+		for(int k = 0; k < 300; k++) {
+			a = new SimpleTableModelBuilder();
+			b = new ArrayTableModelBuilder();
+			m = a.toTableModel();
+			n = b.toTableModel();
+			check(m, n);
+			l = r.nextInt(12);
+			for(int i = 0; i < l; i++) {
+				x = r.nextInt(6);
+				y = r.nextInt(5) + 1;
+				p = r.nextInt(3);
+				q = r.nextInt(3);
+				a.appendCell(x, y, p, q, "c" + i);
+				b.appendCell(x, y, p, q, "c" + i);
+				check(m, n);
+			}
+			check(a.toTableModel(), b.toTableModel());
+		}
+	}
+
+	public void testT0002() {
+		TableModelBuilder b = new ArrayTableModelBuilder();
+		TableModel m;
+
+		for(int i = 1; i <= 300; i++) {
+			for(int j = 1; j <= 300; j++) {
+				b.appendCell(i, j, 1, 1, i + "," + j);
+			}
+		}
+		m = b.toTableModel();
+		assertEquals(300, m.rowSize());
+		assertEquals(300, m.columnSize());
+		assertEquals("123,45", m.get(123, 45).getCell());
+		assertNull(m.get(301, 1));
+	}
+
+	public void testT0003() throws Exception {
+		ExecutorService ex = Executors.newFixedThreadPool(8);
+		List<Future<String>> f = new ArrayList<Future<String>>();
+		TableModelBuilder b;
+
+		// the first looks of many threads make the index together
+		try {
+			for(int k = 0; k < 50; k++) {
+				b = new ArrayTableModelBuilder();
+				for(int i = 1; i <= 40; i++) {
+					for(int j = 1; j <= 40; j++) {
+						b.appendCell(i, j, 1, 1, i + "," + j);
+					}
+				}
+				final TableModel m = b.toTableModel();
+
+				f.clear();
+				for(int t = 0; t < 8; t++) {
+					f.add(ex.submit(new Callable<String>() {
+
+						@Override
+						public String call() {
+							return m.rowSize() + " " + m.columnSize() +
+									" " + m.get(37, 21).getCell();
+						}
+
+					}));
+				}
+				for(Future<String> x : f) {
+					assertEquals("40 40 37,21", x.get());
+				}
+			}
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import net.morilib.natalia.core.ColumnarTableModel.Type;
+import net.morilib.natalia.core.parser.TableParser;
+import net.morilib.natalia.db.parser.DBTextParser;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ColumnarTableModelBuilderTest extends TestCase {
+
+	static final String PSQL =
+			"  id  | code |  name  |  price  |      big      | n  \n" +
+			"------+------+--------+---------+---------------+----\n" +
+			"    1 | 0001 | AMAMI  |   12.50 |   10000000000 |  3\n" +
+			"   22 | 12   | 如月   |   -0.05 |            -1 | x\n" +
+			"      | 3    |        |         |               |\n" +
+			"(3 rows)\n";
+
+	public void testC0001() throws IOException {
+		ColumnarTableModel m;
+
+		m = DBTextParser.getInstance().parseDBColumns(
+				new StringReader(PSQL));
+		assertEquals(0, m.getHeaderRow());
+		assertEquals(3, m.rowSize());
+		assertEquals(6, m.columnSize());
+		assertEquals(Type.INT, m.getType(1));
+		assertEquals(Type.STRING, m.getType(2));
+		assertEquals(Type.STRING, m.getType(3));
+		assertEquals(Type.DECIMAL, m.getType(4));
+		assertEquals(2, m.getScale(4));
+		assertEquals(Type.LONG, m.getType(5));
+		assertEquals(Type.STRING, m.getType(6));
+
+		assertEquals(22, m.getInt(2, 1));
+		assertTrue(m.isNull(3, 1));
+		assertEquals(0, m.getInt(3, 1));
+		assertEquals(10000000000L, m.getLong(1, 5));
+		assertEquals(-0.05, m.getDouble(2, 4));
+		assertEquals(22.0, m.getDouble(2, 1));
+
+		// the texts are the same as the other parser gives
+		assertEquals("id", m.get(0, 1).getCell());
+		assertEquals("0001", m.get(1, 2).getCell());
+		assertEquals("12", m.get(2, 2).getCell());
+		assertEquals("12.50", m.get(1, 4).getCell());
+		assertEquals("-0.05", m.get(2, 4).getCell());
+		assertEquals("3", m.get(1, 6).getCell());
+		assertEquals("", m.get(3, 4).getCell());
+		assertNull(m.get(4, 1));
+	}
+
+	public void testC0002() throws IOException {
+		ColumnarTableModel m;
+		TableModel t;
+		String s;
+
+		s = "+----+------+-------+\n" +
+				"| id | name | v     |\n" +
+				"+----+------+-------+\n" +
+				"|  1 | a    |  NULL |\n" +
+				"|  2 | NULL |  -3.0 |\n" +
+				"+----+------+-------+\n";
+		m = TableParser.getInstance().parseMySQLColumns(
+				new StringReader(s));
+		t = TableParser.getInstance().parseMySQLOutput(s);
+		assertEquals(t.toString(), m.toString());
+		assertEquals(Type.INT, m.getType(1));
+		assertEquals(Type.STRING, m.getType(2));
+		assertEquals(Type.DECIMAL, m.getType(3));
+		assertTrue(m.isNull(2, 3));
+		assertTrue(m.isNull(3, 2));
+		assertEquals(-3.0, m.getDouble(3, 3));
+	}
+
+	public void testC0003() {
+		ColumnarTableModelBuilder b;
+		ColumnarTableModel m;
+
+		b = new ColumnarTableModelBuilder(0, "");
+		b.appendCell(0, 1, 1, 1, "a");
+		for(int i = 1; i <= 200; i++) {
+			b.appendCell(i, 1, 1, 1, String.valueOf(i));
+		}
+		b.appendCell(201, 1, 1, 1, "3000000000");
+		b.appendCell(202, 1, 1, 1, "");
+		m = b.toTableModel();
+		assertEquals(Type.LONG, m.getType(1));
+		assertEquals(150, m.getLong(150, 1));
+		assertFalse(m.isNull(201, 1));
+		assertTrue(m.isNull(202, 1));
+
+		b.appendCell(203, 1, 1, 1, "x");
+		assertEquals(Type.STRING, m.getType(1));
+		assertEquals("3000000000", m.get(201, 1).getCell());
+		assertEquals("150", m.get(150, 1).getCell());
+		assertTrue(m.isNull(202, 1));
+		assertEquals(203, m.rowSize());
+
+		try {
+			m.getLong(1, 1);
+			fail();
+		} catch(IllegalStateException e) {
+			// ok
+		}
+	}
+
+	public void testC0004() throws IOException {
+		ColumnarTableModel m;
+		String s;
+
+		s = " id |        f         |  n   \n" +
+				"----+------------------+------\n" +
+				"  1 |                1 |  1.5\n" +
+				"  2 |              2.5 | 2.25\n" +
+				"  3 | 0.33333333333333 |   10\n" +
+				"  4 |             2.50 |     \n" +
+				"  5 |             -0.0 | 1.00\n" +
+				"(5 rows)\n";
+		m = DBTextParser.getInstance().parseDBColumns(new StringReader(s));
+		assertEquals(Type.DOUBLE, m.getType(2));
+		assertEquals(Type.DOUBLE, m.getType(3));
+		assertEquals(0, m.getScale(3));
+		assertEquals(1.0, m.getDouble(1, 2));
+		assertEquals(2.5, m.getDouble(2, 2));
+		assertEquals(0.33333333333333, m.getDouble(3, 2));
+		assertEquals(2.25, m.getDouble(2, 3));
+		assertEquals(10.0, m.getDouble(3, 3));
+		assertTrue(m.isNull(4, 3));
+
+		// the texts are the same as the other parser gives
+		assertEquals(DBTextParser.getInstance().parseDBText(s).toString(),
+				m.toString());
+		assertEquals("1", m.get(1, 2).getCell());
+		assertEquals("2.50", m.get(4, 2).getCell());
+		assertEquals("-0.0", m.get(5, 2).getCell());
+		assertEquals("1.00", m.get(5, 3).getCell());
+
+		try {
+			m.getLong(1, 2);
+			fail();
+		} catch(IllegalStateException e) {
+			// ok
+		}
+	}
+
+}
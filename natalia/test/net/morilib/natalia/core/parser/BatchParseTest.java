@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import net.morilib.natalia.core.ParseResult;
+import net.morilib.natalia.core.ParserException;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class BatchParseTest extends TestCase {
+
+	//
+	static class Inputs implements Iterator<Reader> {
+
+		private int size, taken;
+
+		Inputs(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return taken < size;
+		}
+
+		@Override
+		public Reader next() {
+			int i = taken++;
+
+			// every third input has no tables
+			return new StringReader(i % 3 == 2 ?
+					"no table" : "+--+\n|" + label(i) + " |\n+--+\n");
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	static String label(int i) {
+		return String.valueOf((char)('a' + i % 26));
+	}
+
+	static void check(ParseResult r) {
+		if(r.getIndex() % 3 == 2) {
+			assertFalse(r.isSuccessful());
+			assertNull(r.getTableModel());
+			assertTrue(r.getError() instanceof ParserException);
+		} else {
+			assertTrue(r.isSuccessful());
+			assertEquals(label(r.getIndex()),
+					r.getTableModel().get(1, 1).getCell());
+		}
+	}
+
+	public void testB0001() {
+		ExecutorService ex = Executors.newFixedThreadPool(4);
+		Inputs in = new Inputs(50);
+		Iterator<ParseResult> i;
+		ParseResult r;
+
+		try {
+			i = TableParser.getInstance().parseAll(in, ex, 5, true);
+			for(int k = 0; k < 50; k++) {
+				assertTrue(i.hasNext());
+				r = i.next();
+				assertEquals(k, r.getIndex());
+				assertTrue(in.taken - (k + 1) <= 5);
+				check(r);
+			}
+			assertFalse(i.hasNext());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testB0002() {
+		ExecutorService ex = Executors.newFixedThreadPool(3);
+		Set<Integer> s = new HashSet<Integer>();
+		Inputs in = new Inputs(40);
+		Iterator<ParseResult> i;
+		ParseResult r;
+
+		try {
+			i = TableParser.getInstance().parseAll(in, ex, 2, false);
+			while(i.hasNext()) {
+				r = i.next();
+				assertTrue(s.add(r.getIndex()));
+				assertTrue(in.taken - s.size() <= 2);
+				check(r);
+			}
+			assertEquals(40, s.size());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testB0003() {
+		ExecutorService ex = Executors.newSingleThreadExecutor();
+
+		try {
+			assertFalse(TableParser.getInstance().parseAll(
+					new Inputs(0), ex, 1, true).hasNext());
+			try {
+				TableParser.getInstance().parseAll(
+						new Inputs(1), ex, 0, true);
+				fail();
+			} catch(IllegalArgumentException e) {
+				// ok
+			}
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testB0004() {
+		ExecutorService ex = Executors.newSingleThreadExecutor();
+		Iterator<ParseResult> i;
+		ParseResult r;
+		int k = 0;
+
+		// an executor which rejects the inputs does not hang the batch
+		ex.shutdown();
+		i = TableParser.getInstance().parseAll(new Inputs(4), ex, 2, true);
+		while(i.hasNext()) {
+			r = i.next();
+			assertEquals(k++, r.getIndex());
+			assertTrue(r.getError() instanceof RejectedExecutionException);
+		}
+		assertEquals(4, k);
+	}
+
+}
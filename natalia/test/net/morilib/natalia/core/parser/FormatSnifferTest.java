@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.parser.FormatSniffer.Format;
+import net.morilib.natalia.core.parser.FormatSniffer.Result;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class FormatSnifferTest extends TestCase {
+
+	static final String PSQL =
+			"  id  |   name   | b  \n" +
+			"------+----------+----\n" +
+			" 0001 | AMAMI    | 83 \n" +
+			" 0002 | KISARAGI | 72 \n" +
+			"(2 rows)\n";
+
+	static final String MYSQL =
+			"mysql> select * from t;\n" +
+			"+------+----------+\n" +
+			"| id   | name     |\n" +
+			"+------+----------+\n" +
+			"| 0001 | AMAMI    |\n" +
+			"| 0002 | KISARAGI |\n" +
+			"+------+----------+\n" +
+			"2 rows in set (0.07 sec)\n";
+
+	static final String GRID =
+			"+---+---+\n" +
+			"|11 |12 |\n" +
+			"+---+---+\n" +
+			"|21     |\n" +
+			"+-------+\n";
+
+	static Result sniff(String s) {
+		return FormatSniffer.getInstance().sniff(s);
+	}
+
+	public void testF0001() {
+		Result r;
+
+		r = sniff(PSQL);
+		assertEquals(Format.PSQL, r.getFormat());
+		assertEquals(1.0, r.getConfidence());
+		assertEquals(0, r.getLine());
+
+		r = sniff(MYSQL);
+		assertEquals(Format.MYSQL, r.getFormat());
+		assertEquals(1.0, r.getConfidence());
+		assertEquals(1, r.getLine());
+
+		r = sniff(GRID);
+		assertEquals(Format.GRID_TABLE, r.getFormat());
+		assertEquals(0.9, r.getConfidence());
+	}
+
+	public void testF0002() {
+		Result r;
+
+		// without the footer
+		r = sniff(MYSQL.substring(0, MYSQL.indexOf("2 rows")));
+		assertEquals(Format.MYSQL, r.getFormat());
+		assertTrue(r.getConfidence() < 1.0);
+
+		r = sniff(NataliaParseAllTest.TEXT);
+		assertEquals(Format.GRID_TABLE, r.getFormat());
+		assertEquals(1, r.getLine());
+
+		r = sniff("Title\n-----\nsome text\n");
+		assertEquals(Format.PSQL, r.getFormat());
+		assertTrue(r.getConfidence() < 0.5);
+
+		r = sniff("no tables\n");
+		assertEquals(Format.UNKNOWN, r.getFormat());
+		assertEquals(0.0, r.getConfidence());
+	}
+
+	public void testF0003() throws IOException {
+		FormatSniffer f = FormatSniffer.getInstance();
+		TableModel m;
+
+		m = f.parse(PSQL);
+		assertEquals("KISARAGI", m.get(2, 2).getCell());
+		m = f.parse(new StringReader(PSQL));
+		assertEquals("KISARAGI", m.get(2, 2).getCell());
+		m = f.parse(MYSQL);
+		assertEquals("KISARAGI", m.get(3, 2).getCell());
+		m = f.parse(new StringReader(MYSQL));
+		assertEquals("KISARAGI", m.get(3, 2).getCell());
+		m = f.parse(new StringReader(GRID));
+		assertEquals("21", m.get(2, 1).getCell());
+		assertEquals(2, m.get(2, 1).getColumnSpan());
+
+		try {
+			f.parse("no tables\n");
+			fail();
+		} catch(ParserException e) {
+			// ok
+		}
+	}
+
+	public void testF0004() throws IOException {
+		StringBuilder b = new StringBuilder();
+		BufferedReader rd;
+		String s;
+		Result r;
+
+		// a line longer than the mark limit of the reader
+		for(int i = 0; i < 70000; i++)  b.append('x');
+		s = b.append('\n').append(MYSQL).toString();
+
+		r = FormatSniffer.getInstance().sniff(s);
+		assertEquals(Format.MYSQL, r.getFormat());
+		assertEquals(2, r.getLine());
+
+		rd = new BufferedReader(new StringReader(s));
+		r = FormatSniffer.getInstance().sniff(rd);
+		assertEquals(Format.UNKNOWN, r.getFormat());
+		assertEquals(70000, rd.readLine().length());
+	}
+
+}
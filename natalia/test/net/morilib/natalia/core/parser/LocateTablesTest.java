@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import net.morilib.natalia.core.TableCell;
+import net.morilib.natalia.core.TableLocation;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.TableRegion;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class LocateTablesTest extends TestCase {
+
+	static final String SPANS =
+			"+---+---+---+\n" +
+			"|a  |b      |\n" +
+			"+   +---+---+\n" +
+			"|   |c  |d  |\n" +
+			"+---+---+---+\n" +
+			"|e          |\n" +
+			"+-----------+\n";
+
+	static void check(String s, List<TableLocation> l) {
+		List<TableRegion> r;
+		TableModel m;
+		int n;
+
+		r = TableParser.getInstance().parseAllTables(s);
+		assertEquals(r.size(), l.size());
+		for(int k = 0; k < r.size(); k++) {
+			m = r.get(k).getTableModel();
+			n = 0;
+			for(TableCell c : m) {
+				if(c.getRowSpan() > 1 || c.getColumnSpan() > 1)  n++;
+			}
+			assertEquals(r.get(k).toString() + " " + m.rowSize() + "x" +
+					m.columnSize() + (n > 0 ? " spans " + n : ""),
+					l.get(k).toString());
+			assertNull(l.get(k).getTableModel());
+		}
+	}
+
+	public void testL0001() {
+		List<TableLocation> l;
+
+		l = TableParser.getInstance().locateTables(
+				NataliaParseAllTest.TEXT);
+		check(NataliaParseAllTest.TEXT, l);
+		assertEquals("(1,0)-(5,8) 2x2 spans 1", l.get(0).toString());
+		assertEquals("(1,12)-(5,15) 2x1", l.get(1).toString());
+	}
+
+	public void testL0002() {
+		List<TableLocation> l;
+
+		l = TableParser.getInstance().locateTables(SPANS);
+		check(SPANS, l);
+		assertEquals(3, l.get(0).rowSize());
+		assertEquals(3, l.get(0).columnSize());
+		assertEquals(3, l.get(0).getSpanCount());
+	}
+
+	public void testL0003() throws IOException {
+		String s = "text\n\n" + SPANS + "\n" + NataliaParseAllTest.TEXT;
+
+		check(s, TableParser.getInstance().locateTables(
+				new StringReader(s)));
+	}
+
+	public void testL0004() {
+		List<TableLocation> l;
+
+		for(String s : NataliaParseAllTest.BROKEN) {
+			l = TableParser.getInstance().locateTables(s);
+			check(s, l);
+			assertEquals("(0,0)-(2,3) 1x1", l.get(0).toString());
+		}
+	}
+
+}
@@ -15,6 +15,13 @@
  */
 package net.morilib.natalia.core.parser;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+
+import net.morilib.natalia.core.ParserException;
 import net.morilib.natalia.core.TableModel;
 import junit.framework.TestCase;
 
@@ -52,4 +59,61 @@ public class NataliaMySQLParseTest extends TestCase {
 		assertEquals("91", t.get(4, 3).getCell());
 	}
 
+	public void testA0002() throws IOException {
+		String s;
+		TableModel t, u;
+
+		s = "+----+------+\n" +
+				"| a  | b    |\n" +
+				"+----+------+\n" +
+				"| 1  | x y  |\n" +
+				"|    | 漢字 |\n" +
+				"| 3  | z    |\n" +
+				"+----+------+\n";
+		u = TableParser.getInstance().parseMySQLOutput(
+				TableParser.getInstance().parseTable(s));
+		t = TableParser.getInstance().parseMySQLOutput(
+				new StringReader("mysql> select 1;\n" + s));
+		assertEquals(u.rowSize(), t.rowSize());
+		assertEquals(u.columnSize(), t.columnSize());
+		for(int i = 1; i <= u.rowSize(); i++) {
+			for(int j = 1; j <= u.columnSize(); j++) {
+				assertEquals(u.get(i, j).getCell(), t.get(i, j).getCell());
+			}
+		}
+		assertEquals("漢字", t.get(3, 2).getCell());
+	}
+
+	public void testA0003() {
+		try {
+			TableParser.getInstance().parseMySQLOutput("Empty set\n");
+			fail();
+		} catch(ParserException e) {
+			// ok
+		}
+	}
+
+	public void testA0004() throws IOException {
+		File f = File.createTempFile("mysql", ".txt");
+		OutputStream ous = null;
+		TableModel t;
+
+		try {
+			ous = new FileOutputStream(f);
+			ous.write((
+					"+----+------+\n" +
+					"| a  | b    |\n" +
+					"+----+------+\n" +
+					"| 1  | 漢字 |\n" +
+					"+----+------+\n").getBytes("UTF-8"));
+			ous.close();
+			ous = null;
+			t = TableParser.getInstance().parseMySQLOutput(f);
+			assertEquals("漢字", t.get(2, 2).getCell());
+		} finally {
+			if(ous != null)  ous.close();
+			f.delete();
+		}
+	}
+
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.TableRegion;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class NataliaParseAllTest extends TestCase {
+
+	static final String TEXT =
+			"title +-- not a table\n" +
+			"+---+---+   +--+\n" +
+			"|11 |12 |   |aa|\n" +
+			"+---+---+   +--+\n" +
+			"|21     |   |bb|\n" +
+			"+-------+   +--+\n" +
+			"\n" +
+			"  +--+ broken\n" +
+			"  |x  \n" +
+			"  +--+\n" +
+			"text\n" +
+			"  +----+\n" +
+			"  |漢字|\n" +
+			"  +----+\n";
+
+	static void check(List<TableRegion> l) {
+		TableModel m;
+
+		assertEquals(3, l.size());
+		assertEquals("(1,0)-(5,8)", l.get(0).toString());
+		m = l.get(0).getTableModel();
+		assertEquals(2, m.rowSize());
+		assertEquals(2, m.columnSize());
+		assertEquals("11", m.get(1, 1).getCell());
+		assertEquals("12", m.get(1, 2).getCell());
+		assertEquals("21", m.get(2, 1).getCell());
+		assertEquals(2, m.get(2, 1).getColumnSpan());
+
+		assertEquals("(1,12)-(5,15)", l.get(1).toString());
+		m = l.get(1).getTableModel();
+		assertEquals("aa", m.get(1, 1).getCell());
+		assertEquals("bb", m.get(2, 1).getCell());
+
+		assertEquals("(11,2)-(13,7)", l.get(2).toString());
+		m = l.get(2).getTableModel();
+		assertEquals("漢字", m.get(1, 1).getCell());
+	}
+
+	public void testA0001() {
+		check(TableParser.getInstance().parseAllTables(TEXT));
+	}
+
+	public void testA0002() throws IOException {
+		check(TableParser.getInstance().parseAllTables(
+				new StringReader(TEXT)));
+	}
+
+	public void testA0003() {
+		assertTrue(TableParser.getInstance().parseAllTables(
+				"no\ntables\n").isEmpty());
+		assertTrue(TableParser.getInstance().parseAllTables(
+				"").isEmpty());
+	}
+
+	public void testA0004() {
+		try {
+			TableParser.getInstance().parseTable("no\ntables\n");
+			fail();
+		} catch(ParserException e) {
+			// ok
+		}
+	}
+
+	static String dump(List<TableRegion> l) {
+		StringBuilder b = new StringBuilder();
+
+		for(TableRegion x : l) {
+			b.append(x).append('\n').append(x.getTableModel());
+		}
+		return b.toString();
+	}
+
+	public void testA0005() throws InterruptedException {
+		ExecutorService ex = Executors.newFixedThreadPool(4);
+		StringBuilder b = new StringBuilder();
+		String s;
+
+		try {
+			check(TableParser.getInstance().parseAllTables(TEXT, ex));
+
+			for(int k = 0; k < 50; k++) {
+				b.append(TEXT).append('\n');
+			}
+			s = b.toString();
+			assertEquals(dump(TableParser.getInstance().parseAllTables(s)),
+					dump(TableParser.getInstance().parseAllTables(s, ex)));
+			assertEquals(150,
+					TableParser.getInstance().parseAllTables(s, ex).size());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testA0006() throws InterruptedException {
+		ExecutorService ex = Executors.newFixedThreadPool(2);
+		String s;
+
+		// the frame is closed but the inside is not
+		s = "+---+---+\n" +
+				"|   |   |\n" +
+				"+---+   |\n" +
+				"|a      |\n" +
+				"+-------+\n" +
+				TEXT;
+		try {
+			assertEquals(dump(TableParser.getInstance().parseAllTables(s)),
+					dump(TableParser.getInstance().parseAllTables(s, ex)));
+			assertEquals(3,
+					TableParser.getInstance().parseAllTables(s, ex).size());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	//
+	static String edit(List<String> l, int from, int to, String... s) {
+		StringBuilder b = new StringBuilder();
+
+		l.subList(from, to).clear();
+		l.addAll(from, Arrays.asList(s));
+		for(String x : l) {
+			b.append(x).append('\n');
+		}
+		return b.toString();
+	}
+
+	public void testA0007() {
+		List<String> l = new ArrayList<String>(Arrays.asList(
+				TEXT.split("\n")));
+		TableParser p = TableParser.getInstance();
+		List<TableRegion> r;
+		String s;
+
+		r = p.parseAllTables(TEXT);
+
+		// fixes the broken table
+		s = edit(l, 8, 9, "  |x |");
+		r = p.reparseAllTables(r, s, 8, 9, 1);
+		assertEquals(dump(p.parseAllTables(s)), dump(r));
+		assertEquals(4, r.size());
+		assertEquals("(7,2)-(9,5)", r.get(2).toString());
+
+		// inserts lines above the tables
+		s = edit(l, 0, 0, "", "", "text");
+		r = p.reparseAllTables(r, s, 0, 0, 3);
+		assertEquals(dump(p.parseAllTables(s)), dump(r));
+		assertEquals("(4,0)-(8,8)", r.get(0).toString());
+
+		// deletes the last lines of a table
+		s = edit(l, 16, 17);
+		r = p.reparseAllTables(r, s, 16, 17, 0);
+		assertEquals(dump(p.parseAllTables(s)), dump(r));
+		assertEquals(3, r.size());
+
+		r = p.reparseAllTables(null, s, 0, 0, 0);
+		assertEquals(dump(p.parseAllTables(s)), dump(r));
+	}
+
+	public void testA0008() {
+		String[] pool = TEXT.split("\n");
+		TableParser p = TableParser.getInstance();
+		Random rnd = new Random(72);
+		List<TableRegion> r;
+		List<String> l, b;
+		int from, to, n, ok = 0;
+		String[] a;
+		String s, t;
+
+		l = new ArrayList<String>();
+		for(int k = 0; k < 10; k++) {
+			l.addAll(Arrays.asList(pool));
+			l.add("");
+		}
+		r = p.parseAllTables(edit(l, 0, 0));
+
+		for(int k = 0; k < 100; k++) {
+			from = rnd.nextInt(l.size() + 1);
+			to = from + rnd.nextInt(Math.min(4, l.size() - from + 1));
+			a = new String[n = rnd.nextInt(4)];
+			for(int j = 0; j < n; j++) {
+				a[j] = rnd.nextInt(3) == 0 ? "" :
+					pool[rnd.nextInt(pool.length)];
+			}
+			b = new ArrayList<String>(l);
+			s = edit(l, from, to, a);
+			try {
+				t = dump(p.parseAllTables(s));
+			} catch(RuntimeException e) {
+				// the LBA may reject a broken frame
+				t = null;
+			}
+
+			try {
+				r = p.reparseAllTables(r, s, from, to, n);
+				assertEquals(s, t, dump(r));
+				ok++;
+			} catch(RuntimeException e) {
+				// undoes the edit
+				assertNull(s, t);
+				l = b;
+			}
+		}
+		assertTrue(ok > 50);
+	}
+
+	// frames on which the LBA throws IllegalStateException
+	static final String[] BROKEN = {
+		"+--+\n|a |\n+--+\n\n" +
+		"+----+\n|b   |\n+--+ |\n|c | |\n+--+-+\n",
+		"+--+\n|a |\n+--+\n\n" +
+		"+--+\n|b |\n+--+\n+--+\n|c |\n+--+\n",
+	};
+
+	public void testA0009() {
+		List<TableRegion> l;
+
+		for(String s : BROKEN) {
+			l = TableParser.getInstance().parseAllTables(s);
+			assertEquals(1, l.size());
+			assertEquals("(0,0)-(2,3)", l.get(0).toString());
+			assertEquals("a", l.get(0).getTableModel().get(1, 1).getCell());
+		}
+	}
+
+	public void testA0010() throws InterruptedException {
+		ExecutorService ex = Executors.newFixedThreadPool(2);
+		List<TableRegion> l;
+
+		try {
+			for(String s : BROKEN) {
+				l = TableParser.getInstance().parseAllTables(s, ex);
+				assertEquals(1, l.size());
+				assertEquals("a",
+						l.get(0).getTableModel().get(1, 1).getCell());
+			}
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testA0011() throws Exception {
+		ExecutorService ex = Executors.newFixedThreadPool(8);
+		List<Future<Integer>> f = new ArrayList<Future<Integer>>();
+		File g = File.createTempFile("grid", ".txt");
+		StringBuilder b = new StringBuilder("+------+------+\n");
+		Writer w = null;
+
+		for(int i = 0; i < 3000; i++) {
+			b.append(String.format("|r%-5d|c%-5d|\n", i, i));
+			b.append("+------+------+\n");
+		}
+
+		try {
+			w = new OutputStreamWriter(new FileOutputStream(g), "UTF-8");
+			w.write(b.toString());
+			w.close();
+			w = null;
+
+			// the cells are read by many threads after the parse
+			for(final TableModel m : Arrays.asList(
+					TableParser.getInstance().parseTable(g),
+					TableParser.getInstance().parseAllTables(
+							g).get(0).getTableModel())) {
+				f.clear();
+				for(int t = 0; t < 8; t++) {
+					f.add(ex.submit(new Callable<Integer>() {
+
+						@Override
+						public Integer call() {
+							int n = 0;
+
+							for(int i = 0; i < 3000; i++) {
+								if(m.get(i + 1, 1).getCell().equals(
+										"r" + i)) {
+									n++;
+								}
+							}
+							return n;
+						}
+
+					}));
+				}
+				for(Future<Integer> x : f) {
+					assertEquals(3000, x.get().intValue());
+				}
+			}
+		} finally {
+			if(w != null)  w.close();
+			ex.shutdown();
+			g.delete();
+		}
+	}
+
+}
@@ -15,11 +15,14 @@
  */
 package net.morilib.natalia.core.parser;
 
+import java.util.Set;
+
 import net.morilib.natalia.core.Scratch;
 import net.morilib.natalia.core.SimpleTableModelBuilder;
 import net.morilib.natalia.core.TableModel;
 import net.morilib.natalia.core.parser.FrameMainTransition;
 import net.morilib.natalia.core.parser.ParserState;
+import net.morilib.natalia.lba2d.CompiledTransitionTest;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.QuadroFactory;
 import net.morilib.natalia.lba2d.Transition;
@@ -883,4 +886,33 @@ public class NataliaParserTest extends TestCase {
 		assertEquals(q.toString(), "11", t.get(1, 1).getCell());
 	}
 
+	public void testA0030() {
+		Set<ParserState> s;
+
+		// the compiled tables hand each state to its transition
+		s = CompiledTransitionTest.assertCompiled(
+				FrameSearchTransition.INSTANCE, ParserState.class,
+				QuadroFactory.newInstance(
+						"title\n" +
+						"  +---+---+\n" +
+						"  |11 |12 |\n" +
+						"  +---+---+\n" +
+						"  |21     |\n" +
+						"  +-------+\n", Scratch.NONE),
+				ParserState.FSEARCH_INIT, ParserState.FSEARCH_END);
+		assertTrue(s.contains(ParserState.FMAIN_INIT));
+		assertTrue(s.contains(ParserState.FMAIN_RETURN));
+
+		s = CompiledTransitionTest.assertCompiled(
+				MeasureCellTransition.INSTANCE, ParserState.class,
+				QuadroFactory.newInstance(
+						"+---+---+\n" +
+						"|11 |12 |\n" +
+						"+---+---+\n" +
+						"|21     |\n" +
+						"+-------+\n", Scratch.NONE),
+				ParserState.FMAIN_INIT, ParserState.FMAIN_END);
+		assertTrue(s.contains(ParserState.FMAIN_FORWARD));
+	}
+
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.morilib.natalia.core.ArrayTableModelBuilder;
+import net.morilib.natalia.core.ParseAbortedException;
+import net.morilib.natalia.core.ParseResult;
+import net.morilib.natalia.core.SimpleTableModelBuilder;
+import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.TableModelBuilder;
+import net.morilib.natalia.core.TableModelBuilderFactory;
+import net.morilib.natalia.db.parser.DBTextParser;
+import net.morilib.natalia.lba2d.ParseLimit;
+import net.morilib.natalia.lba2d.ParseOptions;
+import net.morilib.natalia.lba2d.QuadroFactory;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ParseOptionsTest extends TestCase {
+
+	//
+	static final String SPAN =
+			"+---+---+\n" +
+			"|11 |12 |\n" +
+			"+---+---+\n" +
+			"|21     |\n" +
+			"+-------+\n";
+
+	//
+	static String blank(int rows) {
+		StringBuilder b = new StringBuilder();
+
+		for(int k = 0; k < rows; k++) {
+			b.append("                                        \n");
+		}
+		return b.toString();
+	}
+
+	public void testO0001() {
+		ParseOptions o = new ParseOptions().setStepBudget(10);
+
+		try {
+			new TableParser(null, o).parseTable(SPAN);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.STEP_BUDGET,
+					e.getReason());
+			assertEquals(11, e.getSteps());
+			assertNotNull(e.getState());
+		}
+	}
+
+	public void testO0002() {
+		ParseOptions o = new ParseOptions();
+
+		o.cancel();
+		try {
+			new TableParser(null, o).parseTable(blank(2000) + SPAN);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.CANCELLED,
+					e.getReason());
+			assertEquals(1024, e.getSteps());
+			assertTrue(e.getRow() < 2000);
+		}
+	}
+
+	public void testO0003() {
+		ParseOptions o = new ParseOptions().setTimeout(0, TimeUnit.SECONDS);
+
+		try {
+			new TableParser(null, o).parseAllTables(
+					blank(2000) + NataliaParseAllTest.TEXT);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.DEADLINE,
+					e.getReason());
+		}
+	}
+
+	public void testO0004() {
+		ParseOptions o = new ParseOptions().setStepBudget(1000000);
+		TableModel m;
+
+		o.setTimeout(1, TimeUnit.MINUTES);
+		m = new TableParser(null, o).parseTable(SPAN);
+		assertEquals("21", m.get(2, 1).getCell());
+		NataliaParseAllTest.check(new TableParser(null, o).parseAllTables(
+				NataliaParseAllTest.TEXT));
+		assertEquals(60, o.getTimeout(TimeUnit.SECONDS));
+		assertFalse(o.isCancelled());
+	}
+
+	public void testO0005() {
+		ParseOptions o = new ParseOptions().setStepBudget(200);
+
+		// not skipped as a broken table
+		try {
+			new TableParser(null, o).parseAllTables(
+					NataliaParseAllTest.TEXT);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(201, e.getSteps());
+		}
+	}
+
+	public void testO0006() {
+		ParseOptions o = new ParseOptions().setStepBudget(20);
+
+		try {
+			new DBTextParser(null, o).parseDBText(
+					" aa | bb \n" +
+					"----+----\n" +
+					" 11 | 12 \n");
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.STEP_BUDGET,
+					e.getReason());
+		}
+	}
+
+	public void testO0007() throws InterruptedException {
+		ExecutorService ex = Executors.newFixedThreadPool(4);
+		StringBuilder b = new StringBuilder();
+		ParseLimit c = new ParseOptions().start();
+		ParseOptions o;
+
+		for(int k = 0; k < 8; k++)  b.append(SPAN).append('\n');
+		TableParser.parseAllTables(QuadroFactory.newInstance(
+				b.toString(), Scratch.NONE), null, c);
+
+		// the tables share the budget which is not enough for all
+		o = new ParseOptions().setStepBudget(c.getSteps() / 2);
+		try {
+			new TableParser(null, o).parseAllTables(b.toString(), ex);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.STEP_BUDGET,
+					e.getReason());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testO0008() {
+		TableParser p = new TableParser();
+		TableParser.Session n = p.newSession();
+		ParseOptions o = new ParseOptions();
+		String s = blank(2000) + SPAN;
+
+		// cancels one request and not the parser
+		o.cancel();
+		try {
+			p.parseTable(s, o);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.CANCELLED,
+					e.getReason());
+		}
+		try {
+			n.parseAllTables(s, o);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.CANCELLED,
+					e.getReason());
+		}
+		assertEquals("21", p.parseTable(s).get(2, 1).getCell());
+		assertEquals("21", p.parseTable(s, new ParseOptions()).get(
+				2, 1).getCell());
+		assertEquals(1, n.parseAllTables(s).size());
+	}
+
+	public void testO0009() {
+		ExecutorService ex = Executors.newFixedThreadPool(2);
+		ParseOptions o = new ParseOptions().setStepBudget(1);
+		TableParser p = new TableParser();
+		Iterator<ParseResult> r;
+
+		// the options of the batch apply to its inputs only
+		try {
+			r = p.parseAll(Arrays.asList(new StringReader(SPAN),
+					new StringReader(SPAN)).iterator(), ex, 2, true, o);
+			while(r.hasNext()) {
+				assertTrue(r.next().getError()
+						instanceof ParseAbortedException);
+			}
+			r = p.parseAll(Arrays.asList(new StringReader(SPAN),
+					new StringReader(SPAN)).iterator(), ex, 2, true);
+			while(r.hasNext()) {
+				assertTrue(r.next().isSuccessful());
+			}
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testO0010() {
+		StringBuilder b = new StringBuilder("+---+---+\n");
+		ParseOptions o = new ParseOptions().setStepBudget(10);
+
+		// a regular grid is not parsed by the LBA
+		for(int k = 0; k < 5000; k++)  b.append("|1  |2  |\n+---+---+\n");
+		try {
+			new TableParser(null, o).parseTable(b.toString());
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.STEP_BUDGET,
+					e.getReason());
+		}
+		try {
+			new TableParser(null, o).parseAllTables(b.toString());
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.STEP_BUDGET,
+					e.getReason());
+		}
+		assertEquals(5000, new TableParser().parseTable(
+				b.toString()).rowSize());
+	}
+
+	public void testO0011() {
+		// the tables of a parallel parse are stopped by interrupts
+		Thread.currentThread().interrupt();
+		try {
+			new TableParser(null, new ParseOptions()).parseTable(
+					blank(2000) + SPAN);
+			fail();
+		} catch(ParseAbortedException e) {
+			assertEquals(ParseAbortedException.Reason.CANCELLED,
+					e.getReason());
+			assertEquals(1024, e.getSteps());
+		} finally {
+			Thread.interrupted();
+		}
+		assertEquals("21", new TableParser(null,
+				new ParseOptions()).parseTable(SPAN).get(2, 1).getCell());
+	}
+
+	public void testO0012() throws InterruptedException {
+		ExecutorService ex = Executors.newFixedThreadPool(2);
+		final AtomicInteger n = new AtomicInteger();
+		ParseOptions o = new ParseOptions();
+		TableParser p = new TableParser();
+		String s;
+
+		o.setTableModelBuilderFactory(new TableModelBuilderFactory() {
+
+			@Override
+			public TableModelBuilder newInstance() {
+				n.incrementAndGet();
+				return ArrayTableModelBuilder.FACTORY.newInstance();
+			}
+
+		});
+
+		// by the LBA and by the regular grid parser
+		s = SPAN + "\n+--+--+\n|a |b |\n+--+--+\n";
+		assertEquals(p.parseTable(SPAN).toString(),
+				p.parseTable(SPAN, o).toString());
+		assertEquals(1, n.get());
+		assertEquals(NataliaParseAllTest.dump(p.parseAllTables(s)),
+				NataliaParseAllTest.dump(p.parseAllTables(s, o)));
+		assertEquals(3, n.get());
+		try {
+			assertEquals(NataliaParseAllTest.dump(p.parseAllTables(s)),
+					NataliaParseAllTest.dump(p.parseAllTables(s, ex, o)));
+			assertEquals(5, n.get());
+		} finally {
+			ex.shutdown();
+		}
+	}
+
+	public void testO0013() {
+		ParseOptions o = new ParseOptions();
+		TableParser p = new TableParser();
+		String s;
+
+		// a builder which takes strings only
+		o.setTableModelBuilderFactory(new TableModelBuilderFactory() {
+
+			@Override
+			public TableModelBuilder newInstance() {
+				return new TableModelBuilder() {
+
+					private TableModelBuilder b =
+							new SimpleTableModelBuilder();
+
+					@Override
+					public void appendCell(int row, int col, int rowspan,
+							int colspan, String text) {
+						b.appendCell(row, col, rowspan, colspan, text);
+					}
+
+					@Override
+					public TableModel toTableModel() {
+						return b.toTableModel();
+					}
+
+				};
+			}
+
+		});
+
+		s = SPAN + "\n+--+--+\n|a |b |\n+--+--+\n";
+		assertEquals(NataliaParseAllTest.dump(p.parseAllTables(s)),
+				NataliaParseAllTest.dump(p.parseAllTables(s, o)));
+		assertEquals("21", p.parseTable(SPAN, o).get(2, 1).getCell());
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.lba2d.ParseStatistics;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ParseStatisticsTest extends TestCase {
+
+	public void testS0001() {
+		ParseStatistics<Scratch, ParserState> s;
+
+		s = new ParseStatistics<Scratch, ParserState>(ParserState.class);
+		new TableParser(s).parseTable(
+				"+---+---+\n" +
+				"|11 |12 |\n" +
+				"+---+---+\n" +
+				"|21     |\n" +
+				"+-------+\n");
+		assertEquals(1, s.getTables());
+		assertEquals(3, s.getCells());
+		assertEquals(0, s.getFailures());
+		assertEquals(1, s.getVisits(ParserState.FSEARCH_INIT));
+		assertEquals(1, s.getVisits(ParserState.FMAIN_END));
+		assertTrue(s.getHeadMoves() > 0);
+		assertTrue(s.getSteps() >= s.getHeadMoves());
+		assertTrue(s.getTimings().containsKey("ExtractTextTransition"));
+		assertTrue(s.getTimings().containsKey("DrawBorderTransition"));
+	}
+
+	public void testS0002() {
+		ParseStatistics<Scratch, ParserState> s;
+
+		s = new ParseStatistics<Scratch, ParserState>(ParserState.class);
+		try {
+			new TableParser(s).parseTable("no table");
+			fail();
+		} catch(ParserException e) {
+			assertEquals(1, s.getFailures());
+			assertEquals(0, s.getTables());
+		}
+	}
+
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import java.util.Random;
+
+import net.morilib.natalia.core.Scratch;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.TableRegion;
+import net.morilib.natalia.lba2d.Quadro;
+import net.morilib.natalia.lba2d.QuadroFactory;
+import junit.framework.TestCase;
+
+/**
+ * Runs the tables of NataliaParserTest through the regular grid
+ * parser and checks that it agrees with the LBA.
+ */
+public class RegularGridParserTest extends TestCase {
+
+	//
+	private static final String TEXT = "ab c漢字";
+
+	// the tables of NataliaParserTest
+	static final String[] CASES = {
+		"+-------+-------+\n" +
+		"|a      |b      |\n" +
+		"+-------+-------+\n" +
+		"|c      |d      |\n" +
+		"+-------+-------+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n" +
+		"|41 |42 |43|\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n",
+
+		"+---+\n" +
+		"|11 |\n" +
+		"+---+\n" +
+		"|21 |\n" +
+		"+---+\n" +
+		"|31 |\n" +
+		"|   |\n" +
+		"+---+\n" +
+		"|41 |\n" +
+		"+---+\n",
+
+		"+-------+--+\n" +
+		"|11     |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21     |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31     |33|\n" +
+		"|       |  |\n" +
+		"+---+---+--+\n",
+
+		"+----------+\n" +
+		"|11        |\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21        |\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31        |\n" +
+		"|          |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"|   +---+--+\n" +
+		"|   |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+   +--+\n" +
+		"|21 |   |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+  |\n" +
+		"|21 |22 |  |\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"|   +---+--+\n" +
+		"|   |22 |23|\n" +
+		"|   +---+--+\n" +
+		"|   |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+   +--+\n" +
+		"|21 |   |23|\n" +
+		"+---+   +--+\n" +
+		"|31 |   |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+  |\n" +
+		"|21 |22 |  |\n" +
+		"+---+---+  |\n" +
+		"|31 |32 |  |\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+------+\n" +
+		"|11 |12    |\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22    |\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22 |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32    |\n" +
+		"|   |      |\n" +
+		"+---+------+\n",
+
+		"+-------+--+\n" +
+		"|11     |13|\n" +
+		"|       +--+\n" +
+		"|       |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21 |22    |\n" +
+		"+---+      |\n" +
+		"|31 |      |\n" +
+		"|   |      |\n" +
+		"+---+------+\n",
+
+		"+---+------+\n" +
+		"|11 |12    |\n" +
+		"+---+      |\n" +
+		"|21 |      |\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+---+--+\n" +
+		"|11 |12 |13|\n" +
+		"+---+---+--+\n" +
+		"|21     |23|\n" +
+		"|       +--+\n" +
+		"|       |33|\n" +
+		"|       |  |\n" +
+		"+-------+--+\n",
+
+		"+---+------+\n" +
+		"|11 |12    |\n" +
+		"+---+---+--+\n" +
+		"|21     |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32    |\n" +
+		"|   |      |\n" +
+		"+---+------+\n",
+
+		"+-------+--+-----+\n" +
+		"|11     |13|14   |\n" +
+		"|       +--+     |\n" +
+		"|       |23|     |\n" +
+		"+---+---+--+--+--+\n" +
+		"|31 |32 |33|34|35|\n" +
+		"+---+---+--+--+--+\n" +
+		"|41     |43|44   |\n" +
+		"|       +--+     |\n" +
+		"|       |53|     |\n" +
+		"+-------+--+-----+\n",
+
+		"+---+---+--+--+--+\n" +
+		"|11 |12 |13|14|15|\n" +
+		"+---+---+--+--+--+\n" +
+		"|21 |22       |25|\n" +
+		"+---+         +--+\n" +
+		"|31 |         |35|\n" +
+		"+---+         +--+\n" +
+		"|41 |         |45|\n" +
+		"+---+---+--+--+--+\n" +
+		"|51 |52 |53|54|55|\n" +
+		"+---+---+--+--+--+\n",
+
+		"+---+---+--+\n" +
+		"|11     |13|\n" +
+		"+       +--+\n" +
+		"|       |23|\n" +
+		"+---+---+--+\n" +
+		"|31 |32 |33|\n" +
+		"|   |   |  |\n" +
+		"+---+---+--+\n",
+
+		"+---+\n" +
+		"|11 |\n" +
+		"+---+\n",
+	};
+
+	//
+	private int regulars;
+
+	//
+	static String dump(TableModel m) {
+		return m.rowSize() + "x" + m.columnSize() + "\n" + m;
+	}
+
+	// parses by both engines
+	TableModel parseTable(Quadro<Scratch> q) {
+		TableRegion x;
+		TableModel m;
+
+		x = RegularGridParser.parse(q.fork());
+		m = NataliaParserTest.parseTable(q);
+		if(x != null) {
+			assertEquals(dump(m), dump(x.getTableModel()));
+			regulars++;
+		}
+		return m;
+	}
+
+	//
+	static String grid(Random r, int rows, int cols) {
+		StringBuilder b = new StringBuilder(), s = new StringBuilder();
+		int[] w = new int[cols];
+		int l;
+
+		s.append('+');
+		for(int j = 0; j < cols; j++) {
+			w[j] = r.nextInt(4) + 2;
+			for(int k = 0; k < w[j]; k++)  s.append('-');
+			s.append('+');
+		}
+		s.append('\n');
+
+		b.append(s);
+		for(int i = 0; i < rows; i++) {
+			l = r.nextInt(2) + 1;
+			for(int k = 0; k < l; k++) {
+				b.append('|');
+				for(int j = 0; j < cols; j++) {
+					for(int c = 0; c < w[j];) {
+						if(c + 1 < w[j] && r.nextBoolean()) {
+							b.append(TEXT.charAt(4 + r.nextInt(2)));
+							c += 2;
+						} else {
+							b.append(TEXT.charAt(r.nextInt(4)));
+							c++;
+						}
+					}
+					b.append('|');
+				}
+				b.append('\n');
+			}
+			b.append(s);
+		}
+		return b.toString();
+	}
+
+	public void testR0001() {
+		for(String s : CASES) {
+			parseTable(QuadroFactory.newInstance(s, Scratch.NONE));
+		}
+		// the others have spans or borders touching the frame
+		assertEquals(6, regulars);
+	}
+
+	public void testR0002() {
+		Random r = new Random(72);
+		TableModel m;
+		String s;
+
+		for(int k = 0; k < 200; k++) {
+			s = grid(r, r.nextInt(4) + 1, r.nextInt(4) + 1);
+			m = parseTable(QuadroFactory.newInstance(s, Scratch.NONE));
+			assertEquals(s, k + 1, regulars);
+			assertEquals(s, dump(m), dump(TableParser.parseTable(
+					QuadroFactory.newInstance("\n  " + s.replace("\n", "\n  "),
+							Scratch.NONE))));
+		}
+	}
+
+	public void testR0003() {
+		Quadro<Scratch> q;
+
+		// a span
+		q = QuadroFactory.newInstance(
+				"+---+---+\n" +
+				"|a      |\n" +
+				"+---+---+\n" +
+				"", Scratch.NONE);
+		assertNull(RegularGridParser.parse(q));
+
+		// a border in a cell
+		q = QuadroFactory.newInstance(
+				"+---+---+\n" +
+				"|a-b|c  |\n" +
+				"+---+---+\n" +
+				"", Scratch.NONE);
+		assertNull(RegularGridParser.parse(q));
+
+		// a line touching the frame
+		q = QuadroFactory.newInstance(
+				"+---+---+\n" +
+				"|a  |c  |\n" +
+				"+---+---+---\n" +
+				"", Scratch.NONE);
+		assertNull(RegularGridParser.parse(q));
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.core.parser;
+
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.LazyTableCell;
+import net.morilib.natalia.core.TableModel;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class SessionTest extends TestCase {
+
+	static CharSequence text(TableModel m, int row, int col) {
+		return ((LazyTableCell)m.get(row, col)).getCellText();
+	}
+
+	//
+	static final String[] TEXTS = {
+		ParseOptionsTest.SPAN,
+		"+--+\n|aa|\n+--+\n",
+		NataliaParseAllTest.TEXT,
+		"  +----+-+\n  |漢字|b|\n  |    +-+\n  |    |c|\n  +----+-+\n",
+		ParseOptionsTest.blank(30) + ParseOptionsTest.SPAN,
+		"+-+\n|x|\n+-+",
+	};
+
+	//
+	static String parse(TableParser p, String s) {
+		try {
+			return RegularGridParserTest.dump(p.parseTable(s));
+		} catch(ParserException e) {
+			return "error";
+		}
+	}
+
+	//
+	static String parse(TableParser.Session p, String s) {
+		try {
+			return RegularGridParserTest.dump(p.parseTable(s));
+		} catch(ParserException e) {
+			return "error";
+		}
+	}
+
+	public void testS0001() {
+		TableParser p = TableParser.getInstance();
+		TableParser.Session s = p.newSession();
+
+		for(int k = 0; k < 3; k++) {
+			for(String x : TEXTS) {
+				assertEquals(x, parse(p, x), parse(s, x));
+				assertEquals(x,
+						NataliaParseAllTest.dump(p.parseAllTables(x)),
+						NataliaParseAllTest.dump(s.parseAllTables(x)));
+			}
+			s.reset();
+		}
+	}
+
+	public void testS0002() {
+		TableParser.Session s = TableParser.getInstance().newSession();
+
+		s.parseAllTables(NataliaParseAllTest.TEXT);
+		try {
+			s.parseTable("no\ntables\n");
+			fail();
+		} catch(ParserException e) {
+			// ok
+		}
+		assertEquals("aa",
+				s.parseTable(TEXTS[1]).get(1, 1).getCell());
+	}
+
+	public void testS0003() {
+		TableParser.Session s = TableParser.getInstance().newSession();
+		TableModel m, n;
+
+		// the cells do not see the text of the next parse
+		m = s.parseTable(TEXTS[3]);
+		n = s.parseTable(TEXTS[0]);
+		assertEquals("漢字", text(m, 1, 1).toString());
+		assertEquals("c", text(m, 2, 2).toString());
+		assertEquals("11", text(n, 1, 1).toString());
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.db.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import net.morilib.natalia.core.ParserException;
+import net.morilib.natalia.core.TableModel;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class DBRowReaderTest extends TestCase {
+
+	static final String PSQL =
+			"  id  |       name       | b  \n" +
+			"------+------------------+----\n" +
+			" 0001 | AMAMI Haruka     | 83 \n" +
+			" 0002 | 如月千早         | 72 \n" +
+			" 0003 | MIURA Azusa      |    \n" +
+			"(3 rows)\n" +
+			"\n";
+
+	static DBRowReader reader(String s) throws IOException {
+		return DBTextParser.getInstance().readDBRows(new StringReader(s));
+	}
+
+	static void check(String s) throws IOException {
+		DBRowReader r = reader(s);
+		TableModel m;
+		String[] a;
+
+		m = DBTextParser.getInstance().parseDBText(s);
+		assertEquals(m.columnSize(), r.columnSize());
+		for(int j = 1; j <= m.columnSize(); j++) {
+			assertEquals(m.get(0, j).getCell(), r.getHeader()[j - 1]);
+		}
+
+		for(int i = 1; (a = r.readRow()) != null; i++) {
+			assertEquals(i, r.getRowNumber());
+			for(int j = 1; j <= m.columnSize(); j++) {
+				assertEquals(m.get(i, j).getCell(), a[j - 1]);
+			}
+		}
+		assertEquals(m.rowSize(), r.getRowNumber());
+		assertEquals(3, m.rowSize());
+	}
+
+	public void testR0001() throws IOException {
+		DBRowReader r = reader(PSQL);
+
+		assertEquals(3, r.columnSize());
+		assertEquals("name", r.getHeader()[1]);
+		assertEquals("AMAMI Haruka", r.readRow()[1]);
+		assertEquals("如月千早", r.readRow()[1]);
+		assertEquals("", r.readRow()[2]);
+		assertNull(r.readRow());
+		assertNull(r.readRow());
+		assertEquals(3, r.getRowNumber());
+		check(PSQL.replace("如月千早         ", "KISARAGI Chihaya "));
+	}
+
+	public void testR0002() throws IOException {
+		DBRowReader r;
+
+		r = reader("select 1;\n" +
+				" a \n" +
+				"---\n" +
+				" 1\n" +
+				" 2\n" +
+				"(2 rows)\n");
+		assertEquals(1, r.columnSize());
+		assertEquals("a", r.getHeader()[0]);
+		assertEquals("1", r.readRow()[0]);
+		assertEquals("2", r.readRow()[0]);
+		assertNull(r.readRow());
+	}
+
+	public void testR0003() throws IOException {
+		try {
+			reader("no table\n");
+			fail();
+		} catch(ParserException e) {
+			// ok
+		}
+	}
+
+	public void testR0004() throws IOException {
+		final int n = 200000;
+		DBRowReader r;
+		String[] a;
+		int k = 0;
+
+		// the rows are made while they are read
+		r = DBTextParser.getInstance().readDBRows(new Reader() {
+
+			private String s = " a | b \n---+---\n";
+			private int p, i;
+
+			@Override
+			public int read(char[] b, int off, int len) {
+				if(p >= s.length()) {
+					if(i >= n)  return -1;
+					s = " " + (i++ % 10) + " | x\n";
+					p = 0;
+				}
+				b[off] = s.charAt(p++);
+				return 1;
+			}
+
+			@Override
+			public void close() {}
+
+		});
+		while((a = r.readRow()) != null) {
+			assertEquals(String.valueOf(k++ % 10), a[0]);
+		}
+		assertEquals(n, r.getRowNumber());
+	}
+
+	public void testR0005() throws IOException {
+		DBRowReader r;
+		String[] a;
+
+		r = reader("mysql> select * from t;\n" +
+				"  +------+----------+\n" +
+				"  | id   | name     |\n" +
+				"  +------+----------+\n" +
+				"  | 0001 | 天海春香 |\n" +
+				"  | 0002 |          |\n" +
+				"  +------+----------+\n" +
+				"  | 0003 | x        |\n" +
+				"2 rows in set (0.07 sec)\n");
+		assertEquals(2, r.columnSize());
+		assertEquals("id", r.getHeader()[0]);
+		assertEquals("name", r.getHeader()[1]);
+		a = r.readRow();
+		assertEquals(2, a.length);
+		assertEquals("0001", a[0]);
+		assertEquals("天海春香", a[1]);
+		assertEquals("", r.readRow()[1]);
+		assertEquals(2, r.getRowNumber());
+		assertNull(r.readRow());
+	}
+
+}
@@ -18,6 +18,7 @@ package net.morilib.natalia.db.parser;
 import net.morilib.natalia.core.Scratch;
 import net.morilib.natalia.core.SimpleTableModelBuilder;
 import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.lba2d.CompiledTransitionTest;
 import net.morilib.natalia.lba2d.Quadro;
 import net.morilib.natalia.lba2d.QuadroFactory;
 import net.morilib.natalia.lba2d.Transition;
@@ -179,4 +180,17 @@ public class DBTextParserTest extends TestCase {
 		assertEquals("91", t.get(3, 3).getCell());
 	}
 
+	public void testA0005() {
+		// the compiled table hands each state to its transition
+		assertTrue(CompiledTransitionTest.assertCompiled(
+				DBParseMainTransition.I, PS.class,
+				QuadroFactory.newInstance(
+						" aa | bb | cc \n" +
+						"----+----+----\n" +
+						" 11 | 12 | 13 \n" +
+						" 21 |    | 23 \n" +
+						"(2 rows)\n", Scratch.NONE),
+				PS.POSTGRES_MAIN_INIT, PS.POSTGRES_MAIN_END).size() > 10);
+	}
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class BorderIndexTest extends TestCase {
+
+	static String random(Random r, int rows, int columns) {
+		StringBuilder b = new StringBuilder();
+		String p = "+-=|  a漢";
+
+		for(int j = 0; j < rows; j++) {
+			for(int i = r.nextInt(columns); i > 0; i--) {
+				b.append(p.charAt(r.nextInt(p.length())));
+			}
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	static void turn(Quadro<?> q, int d) {
+		switch(d) {
+		case 0:  q.turnNorth();  break;
+		case 1:  q.turnEast();  break;
+		case 2:  q.turnSouth();  break;
+		default:  q.turnWest();  break;
+		}
+	}
+
+	static void to(Quadro<?> q, int row, int column) {
+		for(int k = 0; k < row; k++)  q.moveSouth();
+		for(int k = 0; k < column; k++)  q.moveEast();
+	}
+
+	public void testB0001() {
+		Random r = new Random(72);
+		Quadro<Object> a, b;
+		TextArt t;
+
+		for(int z = 0; z < 20; z++) {
+			t = QuadroFactory.newTextArt(random(r, 1 + r.nextInt(90),
+					1 + r.nextInt(150)));
+			for(int j = -1; j <= t.getRows(); j++) {
+				for(int i = -1; i <= t.getColumns(); i++) {
+					for(int d = 0; d < 4; d++) {
+						a = new GridQuadro<Object>(t, null);
+						b = new QuadroImpl<Object>(t, null);
+						if(j < 0) {
+							a.moveNorth();
+							b.moveNorth();
+						}
+
+						if(i < 0) {
+							a.moveWest();
+							b.moveWest();
+						}
+						to(a, j, i);
+						to(b, j, i);
+						turn(a, d);
+						turn(b, d);
+						a.skipWalls();
+						b.skipWalls();
+						assertEquals(b.getRowPosition(), a.getRowPosition());
+						assertEquals(b.getColumnPosition(),
+								a.getColumnPosition());
+						a.forwardToJunction();
+						b.forwardToJunction();
+						assertEquals(b.getRowPosition(), a.getRowPosition());
+						assertEquals(b.getColumnPosition(),
+								a.getColumnPosition());
+					}
+				}
+			}
+		}
+	}
+
+}
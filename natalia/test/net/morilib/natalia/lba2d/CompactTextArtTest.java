@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class CompactTextArtTest extends TestCase {
+
+	static CompactTextArt text(String s) {
+		return (CompactTextArt)QuadroFactory.newTextArt(s);
+	}
+
+	static void assertSame(TextArt a, CompactTextArt b) {
+		assertEquals(a.getRows(), b.getRows());
+		assertEquals(a.getColumns(), b.getColumns());
+		for(int r = -1; r <= a.getRows(); r++) {
+			for(int c = -1; c <= a.getColumns(); c++) {
+				assertEquals(r + "," + c, a.get(r, c).getChar(),
+						b.get(r, c).getChar());
+				assertEquals(r + "," + c, a.get(r, c).isEqualsToLeft(),
+						b.get(r, c).isEqualsToLeft());
+			}
+		}
+	}
+
+	// the index of the loaded text is made again
+	static void assertIndex(String s, CompactTextArt t) {
+		BorderIndex a = new BorderIndex(QuadroFactory.newTextArt(s));
+		BorderIndex b = BorderIndex.of(t);
+
+		for(int r = 0; r < t.getRows(); r++) {
+			for(int c = 0; c < t.getColumns(); c++) {
+				for(int d = 0; d < 4; d++) {
+					assertEquals(a.skipWalls(r, c, d),
+							b.skipWalls(r, c, d));
+					assertEquals(a.toJunction(r, c, d),
+							b.toJunction(r, c, d));
+				}
+			}
+		}
+	}
+
+	public void testC0001() {
+		CompactTextArt t = text("+-|=\na漢+\n\nx");
+
+		assertEquals(4, t.getRows());
+		assertEquals(4, t.getColumns());
+		assertEquals(Pixel._JUNCTION, t.getKind(0, 0));
+		assertEquals(Pixel._WALL, t.getKind(0, 1));
+		assertEquals(Pixel._WALL, t.getKind(0, 2));
+		assertEquals(Pixel._WALL, t.getKind(0, 3));
+		assertEquals(Pixel._CELL, t.getKind(1, 0));
+		assertEquals(Pixel._CELL, t.getKind(1, 1));
+		assertEquals(Pixel._EQ_TO_LEFT, t.getKind(1, 2));
+		assertEquals(Pixel._JUNCTION, t.getKind(1, 3));
+
+		// beyond the end of a row
+		assertEquals(Pixel._CELL, t.getKind(2, 0));
+		assertEquals(Pixel._CELL, t.getKind(3, 1));
+		assertEquals(Pixel.SPACE, t.get(3, 1));
+
+		// outside of the text
+		assertEquals(Pixel._BOUND, t.getKind(-1, 0));
+		assertEquals(Pixel._BOUND, t.getKind(4, 0));
+		assertEquals(Pixel._BOUND, t.getKind(0, -1));
+		assertEquals(Pixel._BOUND, t.getKind(0, 4));
+		assertEquals(Pixel.BOUND, t.get(4, 0));
+		assertEquals(Pixel.BOUND, t.get(0, 4));
+		try {
+			t.get(5, 0);
+			fail();
+		} catch(IllegalStateException e) {
+			// ok
+		}
+	}
+
+	public void testC0002() {
+		CompactTextArt t = text("漢字|\n+漢+\n|漢");
+
+		// a full width character takes two columns
+		assertEquals(5, t.getColumns());
+		assertEquals('漢', t.get(0, 0).getChar());
+		assertFalse(t.get(0, 0).isEqualsToLeft());
+		assertTrue(t.get(0, 1).isEqualsToLeft());
+		assertEquals('字', t.get(0, 2).getChar());
+		assertTrue(t.get(0, 3).isEqualsToLeft());
+		assertTrue(t.get(0, 4).isWall());
+		assertTrue(t.get(1, 0).isJunction());
+		assertEquals(Pixel._EQ_TO_LEFT, t.getKind(1, 2));
+		assertTrue(t.get(1, 3).isJunction());
+		assertTrue(t.get(2, 2).isEqualsToLeft());
+		assertEquals(Pixel.SPACE, t.get(2, 3));
+		assertEquals(Pixel._CELL, t.getKind(2, 4));
+
+		// the halves are not walls to the border index
+		assertEquals(3, BorderIndex.of(t).toJunction(1, 1, 1));
+	}
+
+	public void testC0003() {
+		CompactTextArt t;
+		String s, u;
+
+		s = "+------+------+\n" +
+				"|漢字  |abcdef|\n" +
+				"+------+------+\n" +
+				"|      |      |\n" +
+				"+------+------+\n";
+		u = "+-+\n" +
+				"|漢\n" +
+				"+-+\n\n\n";
+		t = text(s);
+		BorderIndex.of(t);
+
+		// the planes are reused for a shorter text
+		t.load(u);
+		assertSame(QuadroFactory.newTextArt(u), t);
+		assertEquals(3, t.getRows());
+		assertEquals(3, t.getColumns());
+		assertIndex(u, t);
+
+		t.load(s);
+		assertSame(QuadroFactory.newTextArt(s), t);
+		assertIndex(s, t);
+
+		t.load("");
+		assertSame(QuadroFactory.newTextArt(""), t);
+		t.load("ab");
+		assertSame(QuadroFactory.newTextArt("ab"), t);
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import net.morilib.natalia.core.SimpleTableModelBuilder;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class CompiledTransitionTest extends TestCase {
+
+	// the result of a step: the next state or the exception
+	static<S, P> String step(Transition<S, P> t, Quadro<S> q, P state) {
+		q.setTableModelBuilder(new SimpleTableModelBuilder());
+		try {
+			return t.transit(q, state) + " " +
+					q.getTableModelBuilder().toTableModel();
+		} catch(RuntimeException e) {
+			return e.getClass().getName();
+		}
+	}
+
+	/**
+	 * checks that the handler of the state in the compiled table
+	 * makes the same step as the whole tree of transitions does.
+	 */
+	static<S, P extends Enum<P>> void assertHandler(
+			Transition<S, P> root, Transition<S, P> compiled,
+			Quadro<S> q, P state) {
+		Transition<S, P> h = CompiledTransition.handlerOf(compiled, state);
+		Quadro<S> a = q.fork(), b = q.fork();
+
+		assertFalse(state.toString(), h instanceof CompositeTransition &&
+				((CompositeTransition<S, P>)h).getDelegate(state) != null);
+		assertEquals(state.toString(), step(root, a, state),
+				step(h, b, state));
+		assertTrue(state.toString(), a.isSameConfiguration(b));
+	}
+
+	/**
+	 * runs the compiled transition from the initial state to the
+	 * final one checking the handler at each step, then checks the
+	 * handlers of all states on the given Quadro.
+	 * 
+	 * @return the states which are passed
+	 */
+	public static<S, P extends Enum<P>> Set<P> assertCompiled(
+			Transition<S, P> root, Class<P> states,
+			Quadro<S> q, P init, P end) {
+		Transition<S, P> c = CompiledTransition.compile(root, states);
+		Set<P> r = EnumSet.noneOf(states);
+		Quadro<S> z = q.fork();
+		P s = init;
+
+		assertTrue(c instanceof CompiledTransition);
+		q.setTableModelBuilder(new SimpleTableModelBuilder());
+		for(int k = 0; !s.equals(end); k++) {
+			assertTrue("maybe infinite loop", k < 1000000);
+			assertHandler(root, c, q, s);
+			r.add(s);
+			s = c.transit(q, s);
+		}
+
+		// the states which are not passed
+		for(P p : states.getEnumConstants()) {
+			assertHandler(root, c, z, p);
+		}
+		return r;
+	}
+
+	//
+	enum Q { A, B, C, D }
+
+	//
+	static final Transition<Object, Q> LEAF = new Transition<Object, Q>() {
+
+		@Override
+		public Q transit(Quadro<Object> q, Q state) {
+			switch(state) {
+			case B:  q.moveEast();  return Q.C;
+			case C:  return Q.D;
+			default:  throw new IllegalStateException();
+			}
+		}
+
+		@Override
+		public Set<Q> getStates() {
+			return EnumSet.of(Q.B, Q.C);
+		}
+
+	};
+
+	//
+	static final Transition<Object, Q> ROOT =
+			new CompositeTransition<Object, Q>() {
+
+		@Override
+		public Q transit(Quadro<Object> q, Q state) {
+			switch(state) {
+			case A:  q.setScratch("a");  return Q.B;
+			default:  return LEAF.transit(q, state);
+			}
+		}
+
+		@Override
+		public Transition<Object, Q> getDelegate(Q state) {
+			return state == Q.A ? null : LEAF;
+		}
+
+		@Override
+		public Set<Q> getStates() {
+			return EnumSet.allOf(Q.class);
+		}
+
+	};
+
+	public void testC0001() {
+		Quadro<Object> q = QuadroFactory.newInstance("abc", null);
+
+		assertEquals(EnumSet.of(Q.A, Q.B, Q.C),
+				assertCompiled(ROOT, Q.class, q, Q.A, Q.D));
+		assertEquals("a", q.moveWest().getScratch());
+		assertSame(LEAF, CompiledTransition.handlerOf(
+				CompiledTransition.compile(ROOT, Q.class), Q.D));
+	}
+
+}
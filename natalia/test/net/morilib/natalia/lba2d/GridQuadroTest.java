@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class GridQuadroTest extends TestCase {
+
+	// 440 rows of 600 columns cross pages of 256 cells and a chunk
+	static final TextArt TEXT = text(440, 600);
+
+	static TextArt text(int rows, int columns) {
+		StringBuilder b = new StringBuilder();
+
+		for(int j = 0; j < rows; j++) {
+			for(int i = 0; i < columns; i++) {
+				b.append((char)('a' + (i + j) % 26));
+			}
+			b.append('\n');
+		}
+		return QuadroFactory.newTextArt(b.toString());
+	}
+
+	static Quadro<Object> at(Quadro<Object> q, int row, int column) {
+		while(q.getRowPosition() < row)  q.moveSouth();
+		while(q.getRowPosition() > row)  q.moveNorth();
+		while(q.getColumnPosition() < column)  q.moveEast();
+		while(q.getColumnPosition() > column)  q.moveWest();
+		return q;
+	}
+
+	static void fill(Quadro<Object> q, int row, int from, int to,
+			Object s, Object m) {
+		for(int c = from; c < to; c++) {
+			at(q, row, c).setScratch(s).mark(m);
+		}
+	}
+
+	static void assertRow(Quadro<Object> q, int row, int from, int to,
+			Object s, Object m) {
+		for(int c = from; c < to; c++) {
+			assertEquals(row + "," + c, s, at(q, row, c).getScratch());
+			assertTrue(row + "," + c, q.isMarked(m));
+		}
+	}
+
+	public void testG0001() {
+		Quadro<Object> a, b;
+
+		// the page boundaries are at every 256 cells of a row
+		a = new GridQuadro<Object>(TEXT, null);
+		fill(a, 1, 0, 600, "a", "m");
+		b = a.fork();
+		fill(b, 1, 250, 270, "b", null);
+		fill(b, 1, 500, 520, null, "n");
+		assertRow(a, 1, 0, 600, "a", "m");
+		assertRow(b, 1, 250, 270, "b", null);
+		assertRow(b, 1, 500, 520, null, "n");
+
+		fill(a, 1, 240, 280, "c", "o");
+		assertRow(b, 1, 240, 250, "a", "m");
+		assertRow(b, 1, 250, 270, "b", null);
+		assertRow(b, 1, 270, 280, "a", "m");
+		assertRow(a, 1, 240, 280, "c", "o");
+		assertRow(a, 1, 500, 520, "a", "m");
+		assertFalse(a.getConfigurationDigest() ==
+				b.getConfigurationDigest());
+	}
+
+	public void testG0002() {
+		Quadro<Object> a, b, c;
+
+		// a chunk of 1024 pages ends in the row 434
+		a = new GridQuadro<Object>(TEXT, null);
+		fill(a, 434, 200, 350, "a", null);
+		b = a.fork();
+		c = b.fork();
+		fill(b, 434, 260, 290, "b", "m");
+		fill(c, 434, 270, 300, "c", null);
+		fill(c, 438, 0, 600, "c", "n");
+		assertRow(a, 434, 200, 350, "a", null);
+		assertRow(a, 438, 0, 600, null, null);
+		assertRow(b, 434, 260, 290, "b", "m");
+		assertRow(b, 434, 290, 350, "a", null);
+		assertRow(b, 438, 0, 600, null, null);
+		assertRow(c, 434, 200, 270, "a", null);
+		assertRow(c, 434, 270, 300, "c", null);
+		assertRow(c, 438, 0, 600, "c", "n");
+	}
+
+	public void testG0003() {
+		Quadro<Object> a, b;
+
+		a = new GridQuadro<Object>(TEXT, null);
+		a.setRowRegister(1).setColumnRegister(2);
+		a.setRowSpanRegister(3).setColumnSpanRegister(4);
+		a.appendTextRegister('a');
+		b = a.fork();
+		b.setRowRegister(5).setColumnRegister(6);
+		b.setRowSpanRegister(7).setColumnSpanRegister(8);
+		b.appendTextRegister('x');
+		assertEquals(1, a.getRowRegister());
+		assertEquals(2, a.getColumnRegister());
+		assertEquals(3, a.getRowSpanRegister());
+		assertEquals(4, a.getColumnSpanRegister());
+		assertEquals("a", a.getTextRegister());
+		assertEquals("ax", b.getTextRegister());
+
+		a.clearTextRegister().appendTextRegister('b');
+		assertEquals("b", a.getTextRegister());
+		assertEquals("ax", b.getTextRegister());
+		b.clearTextRegister();
+		assertEquals("b", a.getTextRegister());
+		assertEquals("", b.getTextRegister());
+		assertEquals(5, b.getRowRegister());
+		assertEquals(8, b.getColumnSpanRegister());
+	}
+
+}
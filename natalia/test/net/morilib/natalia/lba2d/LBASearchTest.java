@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class LBASearchTest extends TestCase {
+
+	// walks east and west until the head is on 'c'
+	static final LBATransition<Object, String> WALK =
+			new LBATransition<Object, String>() {
+
+		@Override
+		public List<ID<Object, String>> transit(ID<Object, String> id) {
+			List<ID<Object, String>> l;
+			Quadro<Object> q = id.getQuadro();
+
+			l = new ArrayList<ID<Object, String>>();
+			if(q.get().getChar() == 'c') {
+				l.add(new ID<Object, String>(q, "ACCEPT"));
+			} else if(!q.get().isBound()) {
+				l.add(new ID<Object, String>(q.fork().moveEast(), "WALK"));
+				l.add(new ID<Object, String>(q.fork().moveWest(), "WALK"));
+			}
+			return l;
+		}
+
+	};
+
+	static Quadro<Object> quadro(String s) {
+		return QuadroFactory.newInstance(s, null);
+	}
+
+	public void testL0001() {
+		assertTrue(LBAs.transit(WALK, quadro("abxxc"), "WALK", "ACCEPT"));
+	}
+
+	public void testL0002() {
+		LBASearch<Object, String> s;
+
+		s = new LBASearch<Object, String>(WALK);
+		assertNull(s.search(quadro("abxxy"), "WALK", "ACCEPT"));
+		assertEquals(SearchStatistics.Result.REJECTED,
+				s.getStatistics().getResult());
+		assertEquals(7, s.getStatistics().getExplored());
+		assertTrue(s.getStatistics().getPruned() > 0);
+	}
+
+	public void testL0003() {
+		LBASearch<Object, String> s;
+
+		s = new LBASearch<Object, String>(WALK)
+				.setStrategy(SearchStrategy.BREADTH_FIRST);
+		assertEquals("ACCEPT",
+				s.search(quadro("xxxxc"), "WALK", "ACCEPT").getState());
+		assertEquals(SearchStatistics.Result.ACCEPTED,
+				s.getStatistics().getResult());
+		assertEquals(6, s.getStatistics().getExplored());
+	}
+
+	public void testL0004() {
+		LBASearch<Object, String> s;
+
+		s = new LBASearch<Object, String>(WALK).setStepBudget(2);
+		assertNull(s.search(quadro("xxxxc"), "WALK", "ACCEPT"));
+		assertEquals(SearchStatistics.Result.STEP_BUDGET,
+				s.getStatistics().getResult());
+		assertEquals(2, s.getStatistics().getExplored());
+
+		s = new LBASearch<Object, String>(WALK).setMemoryBudget(3);
+		assertNull(s.search(quadro("xxxxc"), "WALK", "ACCEPT"));
+		assertEquals(SearchStatistics.Result.MEMORY_BUDGET,
+				s.getStatistics().getResult());
+	}
+
+	public void testL0005() {
+		LBASearch<Object, String> s;
+
+		s = new LBASearch<Object, String>(WALK)
+				.setStrategy(SearchStrategy.BEST_FIRST);
+		try {
+			s.search(quadro("xxxxc"), "WALK", "ACCEPT");
+			fail();
+		} catch(IllegalStateException e) {
+			// ok
+		}
+
+		s.setHeuristic(new Comparator<ID<Object, String>>() {
+
+			@Override
+			public int compare(ID<Object, String> a,
+					ID<Object, String> b) {
+				return a.getState().equals(b.getState()) ?
+						0 : a.getState().equals("ACCEPT") ? -1 : 1;
+			}
+
+		});
+		assertNotNull(s.search(quadro("xxxxc"), "WALK", "ACCEPT"));
+	}
+
+	public void testL0006() {
+		Quadro<Object> q = quadro("ab\ncd"), r;
+
+		r = q.fork();
+		assertEquals(q.getConfigurationDigest(),
+				r.getConfigurationDigest());
+		r.setScratch("x");
+		assertFalse(q.getConfigurationDigest() ==
+				r.getConfigurationDigest());
+		r.setScratch(null);
+		assertEquals(q.getConfigurationDigest(),
+				r.getConfigurationDigest());
+		r.mark(this).moveEast().moveWest();
+		assertFalse(q.getConfigurationDigest() ==
+				r.getConfigurationDigest());
+		r.mark(null);
+		assertEquals(q.getConfigurationDigest(),
+				r.getConfigurationDigest());
+	}
+
+	void assertSameConfiguration(Quadro<Object> q) {
+		Quadro<Object> r = q.fork();
+
+		assertTrue(q.isSameConfiguration(r));
+		r.setScratch("x");
+		assertFalse(q.isSameConfiguration(r));
+		r.setScratch(null);
+		assertTrue(q.isSameConfiguration(r));
+		r.mark(this);
+		assertFalse(q.isSameConfiguration(r));
+		r.mark(null);
+		assertTrue(q.isSameConfiguration(r));
+		r.setRowRegister(1);
+		assertFalse(q.isSameConfiguration(r));
+		r.setRowRegister(0);
+
+		// the same text by the pixel under the head and by a string
+		q.moveEast().appendTextRegister('b');
+		assertFalse(q.isSameConfiguration(r));
+		r.moveSouth().appendTextRegister('b').moveNorth().moveEast();
+		assertEquals(q.getConfigurationDigest(),
+				r.getConfigurationDigest());
+		assertTrue(q.isSameConfiguration(r));
+		r.clearTextRegister().appendTextRegister('c');
+		assertFalse(q.isSameConfiguration(r));
+	}
+
+	public void testL0007() {
+		TextArt t = QuadroFactory.newTextArt("ab\ncd");
+
+		assertSameConfiguration(new GridQuadro<Object>(t, null));
+		assertSameConfiguration(new QuadroImpl<Object>(t, null));
+	}
+
+	public void testL0008() {
+		VisitedSet<Object, String> v;
+		Quadro<Object> q = quadro("ab\ncd"), r;
+
+		// every digest collides
+		v = new VisitedSet<Object, String>() {
+
+			@Override
+			long key(ID<Object, String> d) {
+				return 0;
+			}
+
+		};
+
+		r = q.fork().setScratch("x");
+		assertTrue(v.add(new ID<Object, String>(q, "WALK")));
+		assertTrue(v.add(new ID<Object, String>(r, "WALK")));
+		assertTrue(v.add(new ID<Object, String>(q, "ACCEPT")));
+		assertFalse(v.add(new ID<Object, String>(q.fork(), "WALK")));
+		assertFalse(v.add(new ID<Object, String>(r.fork(), "WALK")));
+		assertEquals(3, v.size());
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.parser.TableParser;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class MappedTextArtTest extends TestCase {
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	static File write(String s) throws IOException {
+		OutputStream o = null;
+		File f;
+
+		f = File.createTempFile("natalia", ".txt");
+		f.deleteOnExit();
+		try {
+			o = new FileOutputStream(f);
+			o.write(s.getBytes(UTF8));
+		} finally {
+			if(o != null) {
+				o.close();
+			}
+		}
+		return f;
+	}
+
+	static void assertPixel(TextArt a, TextArt b, int r, int c) {
+		String s = r + "," + c;
+
+		assertEquals(s, a.get(r, c).getChar(), b.get(r, c).getChar());
+		assertEquals(s, a.get(r, c).isEqualsToLeft(),
+				b.get(r, c).isEqualsToLeft());
+	}
+
+	static void assertText(TextArt a, TextArt b) {
+		assertEquals(a.getRows(), b.getRows());
+		assertEquals(a.getColumns(), b.getColumns());
+		for(int r = -1; r <= a.getRows(); r++) {
+			for(int c = -1; c <= a.getColumns(); c++) {
+				assertPixel(a, b, r, c);
+			}
+		}
+	}
+
+	public void testM0001() throws IOException {
+		String s = "ab\n漢字c\n\n+-+\nlast";
+		TableModel m;
+
+		assertText(QuadroFactory.newTextArt(s), new MappedTextArt(
+				write(s.replace("\n", "\r\n")), UTF8));
+
+		m = TableParser.getInstance().parseTable(write(
+				"+--+---+\r\n" +
+				"|a |漢 |\r\n" +
+				"+--+---+\r\n"));
+		assertEquals("a", m.get(1, 1).getCell());
+		assertEquals("漢", m.get(1, 2).getCell());
+	}
+
+	public void testM0002() throws IOException {
+		StringBuilder b = new StringBuilder();
+		TextArt t;
+		File f;
+		String s;
+
+		// lines and characters cross the segments of 4 to 32 bytes
+		for(int k = 0; k < 40; k++) {
+			for(int j = 0; j < k % 7; j++) {
+				b.append(j % 2 == 0 ? "漢" : "ab");
+			}
+			b.append(k % 3 == 0 ? "\r\n" : "\n");
+		}
+		s = b.toString();
+		f = write(s);
+		t = QuadroFactory.newTextArt(s.replace("\r\n", "\n"));
+		for(int bits = 2; bits <= 5; bits++) {
+			assertText(t, new MappedTextArt(f, UTF8, bits));
+		}
+	}
+
+	public void testM0003() throws IOException {
+		StringBuilder b = new StringBuilder();
+		MappedTextArt m;
+		TextArt t;
+		String s;
+
+		// the rows share the 1024 entries of the cache
+		for(int k = 0; k < 3000; k++) {
+			b.append(k).append(k % 2 == 0 ? "漢\n" : "\n");
+		}
+		s = b.toString();
+		m = new MappedTextArt(write(s), UTF8);
+		t = QuadroFactory.newTextArt(s);
+		assertText(t, m);
+
+		for(int r = t.getRows() - 1; r >= 0; r--) {
+			assertPixel(t, m, r, 0);
+			assertPixel(t, m, r, 4);
+		}
+
+		for(int k = 0; k < 3; k++) {
+			assertPixel(t, m, 5, 0);
+			assertPixel(t, m, 5 + 1024, 3);
+			assertPixel(t, m, 5 + 2048, 4);
+		}
+	}
+
+}
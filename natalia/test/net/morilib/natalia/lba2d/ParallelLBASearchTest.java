@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class ParallelLBASearchTest extends TestCase {
+
+	static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	// walks in four directions until the head is on 'c'
+	static final LBATransition<Object, String> WALK2 =
+			new LBATransition<Object, String>() {
+
+		@Override
+		public List<ID<Object, String>> transit(ID<Object, String> id) {
+			List<ID<Object, String>> l;
+			Quadro<Object> q = id.getQuadro();
+
+			l = new ArrayList<ID<Object, String>>();
+			if(q.get().getChar() == 'c') {
+				l.add(new ID<Object, String>(q, "ACCEPT"));
+			} else if(!q.get().isBound()) {
+				l.add(new ID<Object, String>(q.fork().moveEast(), "WALK"));
+				l.add(new ID<Object, String>(q.fork().moveWest(), "WALK"));
+				l.add(new ID<Object, String>(q.fork().moveNorth(), "WALK"));
+				l.add(new ID<Object, String>(q.fork().moveSouth(), "WALK"));
+			}
+			return l;
+		}
+
+	};
+
+	static String grid(int n, char last) {
+		StringBuilder b = new StringBuilder();
+
+		for(int j = 0; j < n; j++) {
+			for(int i = 0; i < n; i++) {
+				b.append(j == n - 1 && i == n - 1 ? last : 'x');
+			}
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	public void testP0001() {
+		ParallelLBASearch<Object, String> s;
+
+		s = new ParallelLBASearch<Object, String>(LBASearchTest.WALK,
+				POOL);
+		assertEquals("ACCEPT", s.search(LBASearchTest.quadro(
+				"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxc"),
+				"WALK", "ACCEPT").getState());
+		assertEquals(SearchStatistics.Result.ACCEPTED,
+				s.getStatistics().getResult());
+	}
+
+	public void testP0002() {
+		ParallelLBASearch<Object, String> s;
+
+		s = new ParallelLBASearch<Object, String>(LBASearchTest.WALK,
+				POOL);
+		assertNull(s.search(LBASearchTest.quadro(
+				"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx"),
+				"WALK", "ACCEPT"));
+		assertEquals(SearchStatistics.Result.REJECTED,
+				s.getStatistics().getResult());
+		assertEquals(45, s.getStatistics().getExplored());
+		assertEquals(45, s.getStatistics().getVisited());
+	}
+
+	public void testP0003() {
+		ParallelLBASearch<Object, String> s;
+
+		s = new ParallelLBASearch<Object, String>(LBASearchTest.WALK,
+				POOL).setStepBudget(3);
+		assertNull(s.search(LBASearchTest.quadro("xxxxxxxxxxc"),
+				"WALK", "ACCEPT"));
+		assertEquals(SearchStatistics.Result.STEP_BUDGET,
+				s.getStatistics().getResult());
+		assertEquals(3, s.getStatistics().getExplored());
+	}
+
+	public void testP0004() {
+		ParallelLBASearch<Object, String> s;
+
+		s = new ParallelLBASearch<Object, String>(WALK2, POOL);
+		assertNull(s.search(LBASearchTest.quadro(grid(30, 'x')),
+				"WALK", "ACCEPT"));
+		assertEquals(30 * 30 + 4 * 30, s.getStatistics().getExplored());
+		assertNotNull(s.search(LBASearchTest.quadro(grid(30, 'c')),
+				"WALK", "ACCEPT"));
+	}
+
+}
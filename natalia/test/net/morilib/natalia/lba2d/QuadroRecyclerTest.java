@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class QuadroRecyclerTest extends TestCase {
+
+	static void same(String s, TextArt a, TextArt b) {
+		assertEquals(s, a.getRows(), b.getRows());
+		assertEquals(s, a.getColumns(), b.getColumns());
+		for(int r = -1; r <= a.getRows(); r++) {
+			for(int c = -1; c <= a.getColumns(); c++) {
+				assertEquals(s, a.get(r, c).getChar(), b.get(r, c).getChar());
+			}
+		}
+	}
+
+	public void testR0001() {
+		String[] a = {
+				"", "\n", "\n\n", "a", "a\n", "a\n\nb\n\n", "\n漢|", "+-+\n"
+		};
+		CompactTextArt t = new CompactTextArt(new String[0]);
+		Random r = new Random(72);
+		String s;
+
+		for(String x : a) {
+			t.load(x);
+			same(x, QuadroFactory.newTextArt(x), t);
+		}
+
+		for(int k = 0; k < 30; k++) {
+			s = BorderIndexTest.random(r, r.nextInt(40), 1 + r.nextInt(60));
+			t.load(s);
+			same(s, QuadroFactory.newTextArt(s), t);
+		}
+	}
+
+	public void testR0002() {
+		QuadroRecycler<Object> p = new QuadroRecycler<Object>(null);
+		Random r = new Random(72);
+		Quadro<Object> a, b;
+		String s;
+		int x, y;
+
+		for(int k = 0; k < 30; k++) {
+			s = BorderIndexTest.random(r, 1 + r.nextInt(40),
+					1 + r.nextInt(60));
+			a = p.newInstance(s);
+			b = QuadroFactory.newInstance(s, null);
+			assertEquals(s, b.getConfigurationDigest(),
+					a.getConfigurationDigest());
+
+			// leaves scratches, marks and registers for the next
+			x = r.nextInt(10);
+			y = r.nextInt(10);
+			BorderIndexTest.to(a, y, x);
+			BorderIndexTest.to(b, y, x);
+			a.setScratch("s").mark("m").setRowRegister(k);
+			b.setScratch("s").mark("m").setRowRegister(k);
+			a.appendTextRegister('t');
+			b.appendTextRegister('t');
+			a.fork().setScratch("f");
+			assertEquals(s, b.getConfigurationDigest(),
+					a.getConfigurationDigest());
+			assertEquals(s, b.turnEast().skipWalls().getColumnPosition(),
+					a.turnEast().skipWalls().getColumnPosition());
+		}
+
+		a = p.newInstance("a\nb");
+		assertNull(a.getScratch());
+		assertFalse(a.isMarked("m"));
+		assertEquals(0, a.getRowRegister());
+		assertEquals("", a.getTextRegister());
+	}
+
+}
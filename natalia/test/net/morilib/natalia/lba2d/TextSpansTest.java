@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import net.morilib.natalia.core.LazyTableCell;
+import net.morilib.natalia.core.TableModel;
+import net.morilib.natalia.core.parser.TableParser;
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class TextSpansTest extends TestCase {
+
+	static CharSequence text(TableModel m, int row, int col) {
+		return ((LazyTableCell)m.get(row, col)).getCellText();
+	}
+
+	public void testT0001() {
+		TableModel m;
+		TextSpans t;
+
+		// a regular grid
+		m = TableParser.getInstance().parseTable(
+				"+------+---+\n" +
+				"| 漢字 |a  |\n" +
+				"|  b   |   |\n" +
+				"+------+---+\n");
+		assertTrue(text(m, 1, 1) instanceof TextSpans);
+		t = (TextSpans)text(m, 1, 1);
+		assertTrue(t.isTrimmed());
+		assertEquals(4, t.getSpanCount());
+		assertEquals(1, t.getRow(0));
+		assertEquals(1, t.getStart(0));
+		assertEquals(7, t.getEnd(0));
+		assertEquals(-1, t.getRow(1));
+		assertEquals("漢字 \n  b", t.toString());
+		assertEquals(7, t.length());
+		assertEquals('b', t.charAt(6));
+		assertEquals("a", m.get(1, 2).getCell());
+	}
+
+	public void testT0002() {
+		TableModel m;
+
+		// spans are parsed by the LBA
+		m = TableParser.getInstance().parseTable(
+				"+----+---+\n" +
+				"|漢 1|2  |\n" +
+				"+----+---+\n" +
+				"| 3      |\n" +
+				"+--------+\n");
+		assertTrue(text(m, 1, 1) instanceof TextSpans);
+		assertEquals("漢 1", m.get(1, 1).getCell());
+		assertEquals("3", m.get(2, 1).getCell());
+		assertEquals("3", text(m, 2, 2).toString());
+	}
+
+	public void testT0003() {
+		Quadro<Object> q = QuadroFactory.newInstance("ab\ncd", null);
+
+		q.appendTextRegister('a').moveEast().appendTextRegister('b');
+		q.appendTextRegister('\n');
+		assertTrue(q.getTextRegisterSequence() instanceof TextSpans);
+		assertEquals("ab\n", q.getTextRegister());
+
+		// a character which is not under the head
+		q.appendTextRegister('x').moveSouth().appendTextRegister('d');
+		assertEquals("ab\nxd", q.getTextRegisterSequence());
+		assertEquals("ab\nxd", q.getTextRegister());
+		assertEquals("x", TextSpans.trim(" x "));
+	}
+
+}
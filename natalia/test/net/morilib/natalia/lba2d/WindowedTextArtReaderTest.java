@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Yuichiro Moriguchi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.morilib.natalia.lba2d;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class WindowedTextArtReaderTest extends TestCase {
+
+	static WindowedTextArtReader reader(String s) {
+		return new WindowedTextArtReader(new BufferedReader(
+				new StringReader(s)));
+	}
+
+	static String line(TextArt t, int row) {
+		StringBuilder b = new StringBuilder();
+
+		for(int c = 0; c < t.getColumns(); c++) {
+			if(!t.get(row, c).isEqualsToLeft()) {
+				b.appendCodePoint(t.get(row, c).getChar());
+			}
+		}
+		return b.toString().replaceAll(" +$", "");
+	}
+
+	static void assertWindow(WindowedTextArtReader w, int row,
+			String... lines) throws IOException {
+		TextArt t = w.nextWindow();
+
+		assertNotNull(t);
+		assertEquals(row, w.getRow());
+		assertEquals(lines.length, t.getRows());
+		for(int k = 0; k < lines.length; k++) {
+			assertEquals(lines[k], line(t, k));
+		}
+	}
+
+	public void testW0001() throws IOException {
+		WindowedTextArtReader w;
+
+		// the table starts in the middle of the text
+		w = reader("title\n" +
+				"text + -- |\n" +
+				"\n" +
+				"  +--+\n" +
+				"  |漢|\n" +
+				"  +--+\n" +
+				"after\n");
+		assertEquals(-1, w.getRow());
+		assertWindow(w, 3, "  +--+", "  |漢|", "  +--+");
+		assertNull(w.nextWindow());
+		assertNull(w.nextWindow());
+		assertEquals(3, w.getRow());
+	}
+
+	public void testW0002() throws IOException {
+		WindowedTextArtReader w;
+
+		// two windows, and the frames side by side share a window
+		w = reader("+--+\n" +
+				"|a |\n" +
+				"+--+\n" +
+				"text\n" +
+				"+-+ +--+\n" +
+				"|b| |c |\n" +
+				"+-+ |  |\n" +
+				"    +--+\n" +
+				"+-+\n");
+		assertWindow(w, 0, "+--+", "|a |", "+--+");
+		assertWindow(w, 4, "+-+ +--+", "|b| |c |", "+-+ |  |",
+				"    +--+");
+		assertWindow(w, 8, "+-+");
+		assertNull(w.nextWindow());
+	}
+
+	public void testW0003() throws IOException {
+		WindowedTextArtReader w;
+
+		// the left edge ends before the right edge
+		w = reader("+--+\n" +
+				"|a |\n" +
+				" b |\n" +
+				"+--+\n" +
+				"|c |\n" +
+				"+--+\n");
+		assertWindow(w, 0, "+--+", "|a |");
+		assertWindow(w, 3, "+--+", "|c |", "+--+");
+		assertNull(w.nextWindow());
+	}
+
+	public void testW0004() throws IOException {
+		WindowedTextArtReader w;
+
+		// the text ends inside a window
+		w = reader("text\n" +
+				"+--+\n" +
+				"|a |\n" +
+				"|b |");
+		assertWindow(w, 1, "+--+", "|a |", "|b |");
+		assertNull(w.nextWindow());
+
+		w = reader("+--+");
+		assertWindow(w, 0, "+--+");
+		assertNull(w.nextWindow());
+		assertNull(reader("").nextWindow());
+		assertNull(reader("text\n").nextWindow());
+	}
+
+}